@@ -0,0 +1,188 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency Benchmark
+ * Closed-loop load generator for comparing platform-thread and virtual-thread modes
+ *
+ * Each client loops for the given duration, mixing order creation (POST /api/orders,
+ * several sequential repository calls) with queue reads (GET /api/orders/pending).
+ * Run it against the backend started normally, then with the virtual-threads profile,
+ * and compare throughput and tail latency as concurrency grows past the Tomcat pool size.
+ *
+ * Usage (Java 17+, no build needed):
+ *   java bench/ConcurrencyBenchmark.java [baseUrl] [concurrency,levels] [secondsPerLevel] [writePercent]
+ *   java bench/ConcurrencyBenchmark.java http://localhost:8080 50,200,400,800 20 30
+ *
+ * Start the backend with --admission.enabled=false: all clients share one address, so
+ * admission control would rate-limit most POSTs (429, counted as errors).
+ * Generated orders are real; run POST /api/test/clear or use a scratch database afterwards.
+ *
+ * Latencies go into one shared log-linear histogram (about 6% resolution), so memory
+ * stays constant however many clients or requests a level runs.
+ */
+public class ConcurrencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "50,200,400,800").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long drinkId = firstDrinkId(client, baseUrl);
+
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %8s%n",
+                "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (int concurrency : levels) {
+            Result result = runLevel(client, baseUrl, drinkId, concurrency, seconds, writePercent);
+            long requests = result.latencies.count();
+            System.out.printf("%-12d %10d %10.1f %10.1f %10.1f %10.1f %8d%n",
+                    concurrency, requests, requests / (double) seconds, result.latencies.percentileMillis(0.50),
+                    result.latencies.percentileMillis(0.99), result.latencies.percentileMillis(1.0), result.errors);
+        }
+        System.exit(0);
+    }
+
+    private static Result runLevel(HttpClient client, String baseUrl, long drinkId,
+            int concurrency, int seconds, int writePercent) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        LongAdder errors = new LongAdder();
+        AtomicLong customer = new AtomicLong();
+        Histogram latencies = new Histogram();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = ThreadLocalRandom.current().nextInt(100) < writePercent
+                                ? createOrder(baseUrl, drinkId, customer.incrementAndGet())
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/pending")).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        latencies.record(System.nanoTime() - start);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+        return new Result(latencies, errors.sum());
+    }
+
+    private static HttpRequest createOrder(String baseUrl, long drinkId, long customer) {
+        String body = String.format(
+                "{\"drinkId\":%d,\"quantity\":1,\"customerName\":\"Bench %d\",\"customerPhone\":\"9%09d\"}",
+                drinkId, customer, customer % 1_000_000_000L);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long firstDrinkId(HttpClient client, String baseUrl) throws Exception {
+        String drinks = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/drinks")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        int idStart = drinks.indexOf("\"id\":");
+        if (idStart < 0) {
+            throw new IllegalStateException("No drinks returned by " + baseUrl + "/api/drinks");
+        }
+        int valueStart = idStart + 5;
+        int valueEnd = valueStart;
+        while (valueEnd < drinks.length() && Character.isDigit(drinks.charAt(valueEnd))) {
+            valueEnd++;
+        }
+        return Long.parseLong(drinks.substring(valueStart, valueEnd));
+    }
+
+    private record Result(Histogram latencies, long errors) {
+    }
+
+    /**
+     * Concurrent latency histogram: values below 16 ns are exact, larger ones fall
+     * into 16 linear sub-buckets per power of two
+     */
+    private static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            counts.incrementAndGet(index(value));
+            total.increment();
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        long count() {
+            return total.sum();
+        }
+
+        double percentileMillis(double quantile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            if (quantile >= 1.0) {
+                return max.get() / 1_000_000.0;
+            }
+            long target = Math.max((long) Math.ceil(count * quantile), 1);
+            long seen = 0;
+            for (int index = 0; index < counts.length(); index++) {
+                seen += counts.get(index);
+                if (seen >= target) {
+                    return Math.min(upperBound(index), max.get()) / 1_000_000.0;
+                }
+            }
+            return max.get() / 1_000_000.0;
+        }
+
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+            return (shift + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBound(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = index / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+    }
+}
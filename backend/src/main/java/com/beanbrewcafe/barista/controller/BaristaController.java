@@ -2,9 +2,11 @@ package com.beanbrewcafe.barista.controller;
 
 import com.beanbrewcafe.barista.model.Barista;
 import com.beanbrewcafe.barista.service.BaristaService;
+import com.beanbrewcafe.barista.service.ResourceVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,14 +17,20 @@ import java.util.List;
 public class BaristaController {
 
     private final BaristaService baristaService;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * Get all baristas
      * GET /api/baristas
+     * Supports If-None-Match (304 without touching the DB)
      */
     @GetMapping
-    public ResponseEntity<List<Barista>> getAllBaristas() {
-        return ResponseEntity.ok(baristaService.getAllBaristas());
+    public ResponseEntity<List<Barista>> getAllBaristas(WebRequest request) {
+        String etag = resourceVersionService.etag(ResourceVersionService.Resource.BARISTAS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(baristaService.getAllBaristas());
     }
 
     /**
@@ -2,9 +2,11 @@ package com.beanbrewcafe.barista.controller;
 
 import com.beanbrewcafe.barista.model.Drink;
 import com.beanbrewcafe.barista.repository.DrinkRepository;
+import com.beanbrewcafe.barista.service.ResourceVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,13 +17,19 @@ import java.util.List;
 public class DrinkController {
 
     private final DrinkRepository drinkRepository;
+    private final ResourceVersionService resourceVersionService;
 
     /**
      * Get all drinks
      * GET /api/drinks
+     * Supports If-None-Match (304 without touching the DB)
      */
     @GetMapping
-    public ResponseEntity<List<Drink>> getAllDrinks() {
-        return ResponseEntity.ok(drinkRepository.findAll());
+    public ResponseEntity<List<Drink>> getAllDrinks(WebRequest request) {
+        String etag = resourceVersionService.etag(ResourceVersionService.Resource.DRINKS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(drinkRepository.findAll());
     }
 }
\ No newline at end of file
@@ -1,16 +1,36 @@
 package com.beanbrewcafe.barista.controller;
 
+import com.beanbrewcafe.barista.dto.OrderColumns;
+import com.beanbrewcafe.barista.dto.OrderIntakeRequest;
+import com.beanbrewcafe.barista.dto.OrderReceipt;
 import com.beanbrewcafe.barista.dto.OrderRequest;
 import com.beanbrewcafe.barista.dto.OrderResponse;
 import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.service.AdmissionControlService;
+import com.beanbrewcafe.barista.service.DashboardSnapshotService;
+import com.beanbrewcafe.barista.service.IdempotencyService;
+import com.beanbrewcafe.barista.service.OrderIntakeService;
 import com.beanbrewcafe.barista.service.OrderService;
+import com.beanbrewcafe.barista.service.OrderWatchService;
 import com.beanbrewcafe.barista.service.PriorityQueueService;
+import com.beanbrewcafe.barista.service.QueuePositionIndex;
+import com.beanbrewcafe.barista.service.ResourceVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,45 +41,176 @@ public class OrderController {
 
     private final OrderService orderService;
     private final PriorityQueueService priorityQueueService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final QueuePositionIndex queuePositionIndex;
+    private final OrderWatchService orderWatchService;
+    private final ResourceVersionService resourceVersionService;
+    private final OrderIntakeService orderIntakeService;
+    private final AdmissionControlService admissionControlService;
+    private final IdempotencyService idempotencyService;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
 
     /**
      * Create a new order
      * POST /api/orders
+     *
+     * With "Prefer: respond-async" (or orders.intake.async-by-default=true) the order
+     * is queued for batched persistence and 202 is returned with the reserved order
+     * number; poll GET /api/orders/number/{orderNumber} for the persisted order.
+     *
+     * Admission control runs first: 429 when the X-Order-Channel (or, without one,
+     * the client address) is over its rate,
+     * 409 with a quoted wait (resubmit with X-Accept-Wait-Minutes), 503 with
+     * Retry-After when the queue is saturated, 503 without it when orders are refused.
+     *
+     * With an Idempotency-Key header, retries of an accepted request replay the
+     * original response instead of creating another order (422 if the key was
+     * used for a different order).
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-        Order order = orderService.createOrder(
-                request.getDrinkId(),
-                request.getQuantity(),
-                request.getCustomerPhone(),
-                request.getCustomerName());
-        return ResponseEntity.ok(OrderResponse.fromOrder(order));
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = "X-Order-Channel", required = false) String channel,
+            @RequestHeader(value = "X-Accept-Wait-Minutes", required = false) Integer acceptedWait,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        if (idempotencyKey == null) {
+            return placeOrder(request, prefer, channel, clientAddress, acceptedWait, null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body("Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        try {
+            return idempotencyService.execute(idempotencyKey, fingerprint(request),
+                    () -> placeOrder(request, prefer, channel, clientAddress, acceptedWait, idempotencyKey),
+                    response -> response.getStatusCode().is2xxSuccessful());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.unprocessableEntity().body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> placeOrder(OrderRequest request, String prefer, String channel,
+            String clientAddress, Integer acceptedWait, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            // Cache miss (restart or eviction): the order may already exist
+            Optional<Order> existing = orderService.getOrderByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                return ResponseEntity.ok(OrderResponse.fromOrder(existing.get()));
+            }
+        }
+
+        AdmissionControlService.AdmissionDecision admission = admissionControlService.evaluate(
+                channel, clientAddress, request.getDrinkId(), request.getQuantity(), acceptedWait);
+        if (!admission.admitted()) {
+            return refuse(admission);
+        }
+
+        boolean async = prefer != null ? prefer.contains("respond-async") : orderIntakeService.isAsyncByDefault();
+        if (async) {
+            return submitOrder(request, idempotencyKey);
+        }
+
+        try {
+            Order order = orderService.createOrder(
+                    request.getDrinkId(),
+                    request.getQuantity(),
+                    request.getCustomerPhone(),
+                    request.getCustomerName(),
+                    idempotencyKey);
+            return ResponseEntity.ok(OrderResponse.fromOrder(order));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race on the unique idempotency_key column: return the winner's order
+            if (idempotencyKey != null) {
+                Optional<Order> existing = orderService.getOrderByIdempotencyKey(idempotencyKey);
+                if (existing.isPresent()) {
+                    return ResponseEntity.ok(OrderResponse.fromOrder(existing.get()));
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Look up an order by its order number, including orders still in async intake
+     * GET /api/orders/number/{orderNumber}
+     */
+    @GetMapping("/number/{orderNumber}")
+    public ResponseEntity<?> getOrderByNumber(@PathVariable String orderNumber) {
+        Optional<Order> order = orderService.getOrderByNumber(orderNumber);
+        if (order.isPresent()) {
+            return ResponseEntity.ok(OrderResponse.fromOrder(order.get()));
+        }
+        if (orderIntakeService.isQueued(orderNumber)) {
+            return ResponseEntity.accepted().body(receipt(orderNumber, null));
+        }
+        return orderIntakeService.getFailure(orderNumber)
+                .<ResponseEntity<?>>map(reason -> ResponseEntity.unprocessableEntity().body(reason))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get admission control state (queue load, thresholds, decisions so far)
+     * GET /api/orders/admission
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionControlService.AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControlService.getStats());
+    }
+
+    /**
+     * Get Idempotency-Key cache statistics
+     * GET /api/orders/idempotency/stats
+     */
+    @GetMapping("/idempotency/stats")
+    public ResponseEntity<IdempotencyService.IdempotencyStats> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+
+    /**
+     * Get async intake pipeline statistics
+     * GET /api/orders/intake/stats
+     */
+    @GetMapping("/intake/stats")
+    public ResponseEntity<OrderIntakeService.IntakeStats> getIntakeStats() {
+        return ResponseEntity.ok(orderIntakeService.getStats());
     }
 
     /**
      * Get all orders
      * GET /api/orders
+     * Accept: application/json (default), application/x-jackson-smile, application/cbor
+     * or application/vnd.beanbrew.order-columns+json
      */
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         List<Order> orders = orderService.getAllOrders();
         List<OrderResponse> responses = orders.stream()
                 .map(OrderResponse::fromOrder)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return orderList(ResponseEntity.ok(), accept, responses);
     }
 
     /**
      * Get pending orders sorted by priority
      * GET /api/orders/pending
+     * Supports If-None-Match (304 without touching the DB) and the same
+     * encodings as GET /api/orders
      */
     @GetMapping("/pending")
-    public ResponseEntity<List<OrderResponse>> getPendingOrders() {
+    public ResponseEntity<?> getPendingOrders(WebRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String etag = resourceVersionService.etag(ResourceVersionService.Resource.ORDERS, encodingVariant(accept));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<Order> orders = orderService.getPendingOrders();
         List<OrderResponse> responses = orders.stream()
                 .map(OrderResponse::fromOrder)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return orderList(ResponseEntity.ok().eTag(etag), accept, responses);
     }
 
     /**
@@ -74,6 +225,28 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get live queue position and ETA for an order (served from memory)
+     * GET /api/orders/{id}/position
+     */
+    @GetMapping("/{id}/position")
+    public ResponseEntity<QueuePositionIndex.QueuePosition> getQueuePosition(@PathVariable Long id) {
+        return queuePositionIndex.getPosition(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream status, queue position and ETA changes for an order (Server-Sent Events)
+     * GET /api/orders/{id}/events
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> watchOrder(@PathVariable Long id) {
+        return orderWatchService.watch(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Complete an order
      * POST /api/orders/{id}/complete
@@ -95,11 +268,78 @@ public class OrderController {
     }
 
     /**
-     * Get queue statistics
+     * Get queue statistics (shared snapshot, refreshed at most once per interval)
      * GET /api/orders/stats
+     * Accept: application/json (default), application/x-jackson-smile or application/cbor
      */
     @GetMapping("/stats")
-    public ResponseEntity<PriorityQueueService.QueueStats> getQueueStats() {
-        return ResponseEntity.ok(priorityQueueService.getQueueStats());
+    public ResponseEntity<byte[]> getQueueStats(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = dashboardSnapshotService.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(format)
+                .body(dashboardSnapshotService.getSnapshot("queue-stats", format, priorityQueueService::getQueueStats));
+    }
+
+    /**
+     * Columnar body when explicitly requested; otherwise the plain list, which
+     * Spring encodes as JSON, Smile or CBOR according to the Accept header
+     */
+    private ResponseEntity<?> orderList(ResponseEntity.BodyBuilder builder, String accept,
+            List<OrderResponse> responses) {
+        builder.varyBy(HttpHeaders.ACCEPT);
+        if (OrderColumns.isAccepted(accept)) {
+            return builder.contentType(OrderColumns.MEDIA_TYPE).body(OrderColumns.of(responses));
+        }
+        return builder.body(responses);
+    }
+
+    private ResponseEntity<?> refuse(AdmissionControlService.AdmissionDecision decision) {
+        HttpStatus status = switch (decision.outcome()) {
+            case RATE_LIMITED -> HttpStatus.TOO_MANY_REQUESTS;
+            case QUOTE -> HttpStatus.CONFLICT;
+            default -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (decision.retryAfterSeconds() > 0) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        }
+        return builder.body(decision);
+    }
+
+    private static String fingerprint(OrderRequest request) {
+        return request.getDrinkId() + "|" + request.getQuantity() + "|"
+                + request.getCustomerPhone() + "|" + request.getCustomerName();
+    }
+
+    private ResponseEntity<?> submitOrder(OrderRequest request, String idempotencyKey) {
+        Optional<OrderIntakeRequest> accepted;
+        try {
+            accepted = orderIntakeService.submit(request.getDrinkId(), request.getQuantity(),
+                    request.getCustomerPhone(), request.getCustomerName(), idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (accepted.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Order intake is full, please retry");
+        }
+        OrderReceipt receipt = receipt(accepted.get().orderNumber(), accepted.get().orderTime());
+        return ResponseEntity.accepted()
+                .location(URI.create(receipt.statusUrl()))
+                .body(receipt);
+    }
+
+    private static OrderReceipt receipt(String orderNumber, LocalDateTime acceptedAt) {
+        return new OrderReceipt(orderNumber, "QUEUED", acceptedAt, "/api/orders/number/" + orderNumber);
+    }
+
+    private String encodingVariant(String accept) {
+        if (OrderColumns.isAccepted(accept)) {
+            return "columns";
+        }
+        MediaType format = dashboardSnapshotService.negotiate(accept);
+        return MediaType.APPLICATION_JSON.equals(format) ? null : format.getSubtype();
     }
 }
\ No newline at end of file
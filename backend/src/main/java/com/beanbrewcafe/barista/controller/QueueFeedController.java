@@ -0,0 +1,40 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.dto.QueueDelta;
+import com.beanbrewcafe.barista.dto.QueueFeedSnapshot;
+import com.beanbrewcafe.barista.service.QueueFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/queue-feed")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class QueueFeedController {
+
+    private final QueueFeedService queueFeedService;
+
+    /**
+     * Get full queue snapshot with its sequence number
+     * GET /api/queue-feed/snapshot
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<QueueFeedSnapshot> getSnapshot() {
+        return ResponseEntity.ok(queueFeedService.getSnapshot());
+    }
+
+    /**
+     * Get retained deltas after a sequence (410 Gone = resync from snapshot)
+     * GET /api/queue-feed/deltas?epoch=...&after=...
+     */
+    @GetMapping("/deltas")
+    public ResponseEntity<List<QueueDelta>> getDeltas(@RequestParam long epoch, @RequestParam long after) {
+        return queueFeedService.getDeltasAfter(epoch, after)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+    }
+}
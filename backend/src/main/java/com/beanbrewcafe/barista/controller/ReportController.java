@@ -0,0 +1,68 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.dto.AnalyticsReport;
+import com.beanbrewcafe.barista.service.OrderHistoryService;
+import com.beanbrewcafe.barista.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private final ReportService reportService;
+    private final OrderHistoryService orderHistoryService;
+
+    /**
+     * Get daily report (defaults to today)
+     * GET /api/reports/daily?date=2026-02-07
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<AnalyticsReport> getDailyReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(reportService.getDailyReport(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Get weekly report for the week containing the date (defaults to this week)
+     * GET /api/reports/weekly?date=2026-02-07
+     */
+    @GetMapping("/weekly")
+    public ResponseEntity<AnalyticsReport> getWeeklyReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(reportService.getWeeklyReport(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * Get report for an arbitrary time range
+     * GET /api/reports/range?from=2026-01-01T00:00:00&to=2026-02-01T00:00:00
+     */
+    @GetMapping("/range")
+    public ResponseEntity<?> getRangeReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(reportService.getRangeReport(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get completed-order history summary from the columnar store (no DB access)
+     * GET /api/reports/history?from=2026-01-01T00:00:00&to=2026-02-01T00:00:00
+     */
+    @GetMapping("/history")
+    public ResponseEntity<OrderHistoryService.HistorySummary> getHistorySummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(orderHistoryService.summarize(from, to));
+    }
+}
@@ -0,0 +1,129 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.scheduler.CompletionTimers;
+import com.beanbrewcafe.barista.scheduler.policy.LookaheadPolicy;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicies;
+import com.beanbrewcafe.barista.service.PrepTimeEstimator;
+import com.beanbrewcafe.barista.service.SlaFeasibilityService;
+import com.beanbrewcafe.barista.service.TraceReplayService;
+import com.beanbrewcafe.barista.scheduler.SchedulingRuntime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/scheduler")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SchedulerController {
+
+    private final SchedulingRuntime schedulingRuntime;
+    private final CompletionTimers completionTimers;
+    private final LookaheadPolicy lookaheadPolicy;
+    private final SchedulingPolicies schedulingPolicies;
+    private final TraceReplayService traceReplayService;
+    private final PrepTimeEstimator prepTimeEstimator;
+    private final SlaFeasibilityService slaFeasibilityService;
+
+    /**
+     * Get scheduling runtime statistics (ticks, skipped ticks, per-stage timing)
+     * GET /api/scheduler/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<SchedulingRuntime.RuntimeStats> getStats() {
+        return ResponseEntity.ok(schedulingRuntime.getStats());
+    }
+
+    /**
+     * Run one scheduling tick now (409 if a tick is already running)
+     * POST /api/scheduler/tick
+     */
+    @PostMapping("/tick")
+    public ResponseEntity<SchedulingRuntime.RuntimeStats> tick() {
+        boolean ran = schedulingRuntime.tick();
+        return ResponseEntity.status(ran ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(schedulingRuntime.getStats());
+    }
+
+    /**
+     * Get completion timer statistics (armed timers, firing lateness, immediate reassignments)
+     * GET /api/scheduler/completions
+     */
+    @GetMapping("/completions")
+    public ResponseEntity<CompletionTimers.TimerStats> getCompletionStats() {
+        return ResponseEntity.ok(completionTimers.getStats());
+    }
+
+    /**
+     * Get lookahead policy statistics (decisions, search time, budget overruns)
+     * GET /api/scheduler/lookahead
+     */
+    @GetMapping("/lookahead")
+    public ResponseEntity<LookaheadPolicy.LookaheadStats> getLookaheadStats() {
+        return ResponseEntity.ok(lookaheadPolicy.getStats());
+    }
+
+    /**
+     * Get the live scheduling policy and every registered policy
+     * GET /api/scheduler/policies
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<Map<String, Object>> getPolicies() {
+        return ResponseEntity.ok(Map.of(
+                "active", schedulingPolicies.active().name(),
+                "available", schedulingPolicies.names()));
+    }
+
+    /**
+     * Get learned prep-time estimates per drink and quantity, and barista speed factors
+     * GET /api/scheduler/prep-estimates
+     */
+    @GetMapping("/prep-estimates")
+    public ResponseEntity<PrepTimeEstimator.EstimatorStats> getPrepEstimates() {
+        return ResponseEntity.ok(prepTimeEstimator.getStats());
+    }
+
+    /**
+     * Check whether pending orders can meet their SLA deadlines: orders that will
+     * miss regardless, and on-time counts for the live ranking vs the EDF plan
+     * GET /api/scheduler/feasibility
+     */
+    @GetMapping("/feasibility")
+    public ResponseEntity<?> checkFeasibility() {
+        try {
+            return ResponseEntity.ok(slaFeasibilityService.check());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Replay historical orders through several policies and compare them
+     * (defaults: last 7 days, all policies, currently active baristas)
+     * POST /api/scheduler/replay?from=2026-01-01T00:00:00&to=2026-02-01T00:00:00&policies=greedy,lookahead&baristas=3
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<?> replay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> policies,
+            @RequestParam(required = false) Integer baristas,
+            @RequestParam(defaultValue = "false") boolean includeTestOrders) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(7);
+        if (!start.isBefore(end) || (baristas != null && baristas < 1)) {
+            return ResponseEntity.badRequest().body("from must be before to and baristas must be at least 1");
+        }
+        try {
+            return ResponseEntity.ok(traceReplayService.replay(start, end, policies, baristas, includeTestOrders));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.service.StaffingForecastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/staffing")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StaffingController {
+
+    private final StaffingForecastService staffingForecastService;
+
+    /**
+     * Get today's precomputed staffing plan (baristas needed per hour)
+     * GET /api/staffing/plan
+     */
+    @GetMapping("/plan")
+    public ResponseEntity<StaffingForecastService.StaffingPlan> getDailyPlan() {
+        return ResponseEntity.ok(staffingForecastService.getDailyPlan());
+    }
+
+    /**
+     * Forecast arrivals and staffing for a day (defaults to today and staffing.target)
+     * GET /api/staffing/forecast?date=2026-02-07&target=0.05
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<?> getForecast(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Double target) {
+        try {
+            return ResponseEntity.ok(staffingForecastService.forecast(date != null ? date : LocalDate.now(), target));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.model.Station;
+import com.beanbrewcafe.barista.repository.StationRepository;
+import com.beanbrewcafe.barista.service.StationCapacityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stations")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class StationController {
+
+    private final StationRepository stationRepository;
+    private final StationCapacityService stationCapacityService;
+
+    /**
+     * Get every station with its busy units and when the next unit frees up
+     * GET /api/stations
+     */
+    @GetMapping
+    public ResponseEntity<List<StationCapacityService.StationStatus>> getStations() {
+        return ResponseEntity.ok(stationCapacityService.getStatus());
+    }
+
+    /**
+     * Get the throughput ceiling (drinks/hour) for the current menu mix and its bottleneck
+     * GET /api/stations/throughput
+     */
+    @GetMapping("/throughput")
+    public ResponseEntity<StationCapacityService.Throughput> getThroughput() {
+        return ResponseEntity.ok(stationCapacityService.getThroughput());
+    }
+
+    /**
+     * Change how many drinks a station can work on at once
+     * PUT /api/stations/{id}/capacity?capacity=3
+     */
+    @PutMapping("/{id}/capacity")
+    public ResponseEntity<Station> updateCapacity(@PathVariable Long id, @RequestParam int capacity) {
+        if (capacity < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return stationRepository.findById(id)
+                .map(station -> {
+                    station.setCapacity(capacity);
+                    Station saved = stationRepository.save(station);
+                    stationCapacityService.load();
+                    return ResponseEntity.ok(saved);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
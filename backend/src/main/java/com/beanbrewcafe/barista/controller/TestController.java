@@ -1,9 +1,12 @@
 package com.beanbrewcafe.barista.controller;
 
 import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.service.DashboardSnapshotService;
 import com.beanbrewcafe.barista.service.TestDataService;
 import com.beanbrewcafe.barista.service.TestMetricsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +20,10 @@ public class TestController {
 
     private final TestDataService testDataService;
     private final TestMetricsService testMetricsService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+
+    private static final String METRICS_VIEW = "test-metrics";
+    private static final String TIMESERIES_VIEW = "test-timeseries";
 
     /**
      * Generate 100 test orders
@@ -25,6 +32,7 @@ public class TestController {
     @PostMapping("/generate")
     public ResponseEntity<String> generateTestOrders() {
         List<Order> orders = testDataService.generate100TestOrders();
+        invalidateSnapshots();
         return ResponseEntity.ok("Generated " + orders.size() + " test orders successfully");
     }
 
@@ -35,24 +43,49 @@ public class TestController {
     @DeleteMapping("/clear")
     public ResponseEntity<String> clearTestData() {
         testDataService.clearTestData();
+        invalidateSnapshots();
         return ResponseEntity.ok("Test data cleared successfully");
     }
 
     /**
-     * Get test metrics
+     * Get test metrics (shared snapshot, refreshed at most once per interval)
      * GET /api/test/metrics
+     * Accept: application/json (default), application/x-jackson-smile or application/cbor
      */
     @GetMapping("/metrics")
-    public ResponseEntity<TestMetricsService.TestMetrics> getTestMetrics() {
-        return ResponseEntity.ok(testMetricsService.getTestMetrics());
+    public ResponseEntity<byte[]> getTestMetrics(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = dashboardSnapshotService.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(format)
+                .body(dashboardSnapshotService.getSnapshot(METRICS_VIEW, format, testMetricsService::getTestMetrics));
     }
 
     /**
-     * Get time series data
+     * Get time series data (shared snapshot, refreshed at most once per interval)
      * GET /api/test/timeseries
+     * Accept: application/json (default), application/x-jackson-smile or application/cbor
      */
     @GetMapping("/timeseries")
-    public ResponseEntity<List<TestMetricsService.TimeSeriesPoint>> getTimeSeries() {
-        return ResponseEntity.ok(testMetricsService.getTimeSeriesData());
+    public ResponseEntity<byte[]> getTimeSeries(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = dashboardSnapshotService.negotiate(accept);
+        return ResponseEntity.ok()
+                .contentType(format)
+                .body(dashboardSnapshotService.getSnapshot(TIMESERIES_VIEW, format, testMetricsService::getTimeSeriesData));
+    }
+
+    /**
+     * Get snapshot cache statistics
+     * GET /api/test/snapshots/stats
+     */
+    @GetMapping("/snapshots/stats")
+    public ResponseEntity<DashboardSnapshotService.SnapshotStats> getSnapshotStats() {
+        return ResponseEntity.ok(dashboardSnapshotService.getStats());
+    }
+
+    private void invalidateSnapshots() {
+        dashboardSnapshotService.invalidate(METRICS_VIEW);
+        dashboardSnapshotService.invalidate(TIMESERIES_VIEW);
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.beanbrewcafe.barista.controller;
+
+import com.beanbrewcafe.barista.service.WebSocketFanoutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ws")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class WebSocketController {
+
+    private final WebSocketFanoutService fanoutService;
+
+    /**
+     * Get per-session fan-out metrics (queue depth, conflation, resyncs)
+     * GET /api/ws/sessions
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<List<WebSocketFanoutService.SessionMetrics>> getSessionMetrics() {
+        return ResponseEntity.ok(fanoutService.getSessionMetrics());
+    }
+}
@@ -0,0 +1,27 @@
+package com.beanbrewcafe.barista.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class AnalyticsReport {
+    private String period;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long totalOrders;
+    private Long completedOrders;
+    private Long cancelledOrders;
+    private Long timeoutOrders;
+    private Double timeoutRate;
+    private Double avgWaitTime;
+    private Map<LocalDateTime, Long> ordersByHour;
+    private Map<LocalDateTime, Long> throughputByHour;
+    private Map<String, Double> baristaUtilization;
+    private Map<String, Long> baristaOrdersServed;
+    private Map<LocalDate, Map<String, Long>> drinkMixByDay;
+    private Integer chunksProcessed;
+    private Long computeMillis;
+}
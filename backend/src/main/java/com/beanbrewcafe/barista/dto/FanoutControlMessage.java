@@ -0,0 +1,13 @@
+package com.beanbrewcafe.barista.dto;
+
+/**
+ * Control frame sent by the WebSocket fan-out layer instead of regular updates.
+ * RESYNC means queued updates for the channel were discarded and the client
+ * must reload its state (snapshot / REST) before applying further updates.
+ */
+public record FanoutControlMessage(String type, String channel, String reason) {
+
+    public static FanoutControlMessage resync(String channel, String reason) {
+        return new FanoutControlMessage("RESYNC", channel, reason);
+    }
+}
@@ -0,0 +1,19 @@
+package com.beanbrewcafe.barista.dto;
+
+import com.beanbrewcafe.barista.model.Customer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged projection of an order's arrival for trace replay.
+ * Selected with a JPQL constructor expression so no entities (or their eager associations) are loaded.
+ */
+public record OrderArrival(
+        Long id,
+        String orderNumber,
+        LocalDateTime orderTime,
+        Long drinkId,
+        Integer drinkPrepTime,
+        Integer quantity,
+        Customer.LoyaltyStatus loyaltyStatus) {
+}
@@ -0,0 +1,114 @@
+package com.beanbrewcafe.barista.dto;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar encoding of an order list
+ *
+ * One array per field instead of one object per order. Drink, barista and
+ * status names are dictionary-coded (index into the matching dictionary,
+ * -1 = none) and order times are epoch milliseconds, so a row costs a handful
+ * of numbers instead of repeated field names, strings and ISO timestamps.
+ * Served for Accept: application/vnd.beanbrew.order-columns+json.
+ */
+@Getter
+public class OrderColumns {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.beanbrew.order-columns+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final int count;
+    private final List<String> drinks = new ArrayList<>();
+    private final List<String> baristas = new ArrayList<>();
+    private final List<String> statuses = new ArrayList<>();
+
+    private final long[] id;
+    private final String[] orderNumber;
+    private final int[] drink;
+    private final int[] barista;
+    private final int[] status;
+    private final int[] quantity;
+    private final BigDecimal[] priorityScore;
+    private final int[] currentWaitMinutes;
+    private final boolean[] emergencyFlag;
+    private final long[] orderTime;
+    private final int[] estimatedPrepTime;
+
+    private OrderColumns(int count) {
+        this.count = count;
+        this.id = new long[count];
+        this.orderNumber = new String[count];
+        this.drink = new int[count];
+        this.barista = new int[count];
+        this.status = new int[count];
+        this.quantity = new int[count];
+        this.priorityScore = new BigDecimal[count];
+        this.currentWaitMinutes = new int[count];
+        this.emergencyFlag = new boolean[count];
+        this.orderTime = new long[count];
+        this.estimatedPrepTime = new int[count];
+    }
+
+    public static OrderColumns of(List<OrderResponse> orders) {
+        OrderColumns columns = new OrderColumns(orders.size());
+        Map<String, Integer> drinkCodes = new HashMap<>();
+        Map<String, Integer> baristaCodes = new HashMap<>();
+        Map<String, Integer> statusCodes = new HashMap<>();
+
+        for (int row = 0; row < orders.size(); row++) {
+            OrderResponse order = orders.get(row);
+            columns.id[row] = order.getId();
+            columns.orderNumber[row] = order.getOrderNumber();
+            columns.drink[row] = encode(order.getDrinkName(), drinkCodes, columns.drinks);
+            columns.barista[row] = encode(order.getBaristaName(), baristaCodes, columns.baristas);
+            columns.status[row] = encode(order.getStatus(), statusCodes, columns.statuses);
+            columns.quantity[row] = valueOrZero(order.getQuantity());
+            columns.priorityScore[row] = order.getPriorityScore();
+            columns.currentWaitMinutes[row] = valueOrZero(order.getCurrentWaitMinutes());
+            columns.emergencyFlag[row] = Boolean.TRUE.equals(order.getEmergencyFlag());
+            columns.orderTime[row] = epochMillis(order.getOrderTime());
+            columns.estimatedPrepTime[row] = valueOrZero(order.getEstimatedPrepTime());
+        }
+        return columns;
+    }
+
+    /**
+     * True if the Accept header explicitly asks for the columnar encoding
+     */
+    public static boolean isAccepted(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(acceptHeader).stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MEDIA_TYPE));
+    }
+
+    private static int encode(String value, Map<String, Integer> codes, List<String> dictionary) {
+        if (value == null) {
+            return -1;
+        }
+        return codes.computeIfAbsent(value, key -> {
+            dictionary.add(key);
+            return dictionary.size() - 1;
+        });
+    }
+
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZONE).toInstant().toEpochMilli() : 0L;
+    }
+}
@@ -0,0 +1,26 @@
+package com.beanbrewcafe.barista.dto;
+
+import com.beanbrewcafe.barista.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged projection of an order row for analytics scans.
+ * Selected with a JPQL constructor expression so no entities enter the persistence context.
+ */
+public record OrderFact(
+        Long id,
+        LocalDateTime orderTime,
+        LocalDateTime assignedTime,
+        LocalDateTime completionTime,
+        Order.OrderStatus status,
+        Integer waitTimeMinutes,
+        Integer quantity,
+        Long drinkId,
+        String drinkName,
+        Integer drinkPrepTime,
+        Long baristaId,
+        String baristaName,
+        Integer assignedPrepMinutes,
+        String batchId) {
+}
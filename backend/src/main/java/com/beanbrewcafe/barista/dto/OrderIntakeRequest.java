@@ -0,0 +1,17 @@
+package com.beanbrewcafe.barista.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * An accepted but not yet persisted order, as queued by the async intake pipeline.
+ * The order number and order time are fixed at intake so queue position reflects arrival.
+ */
+public record OrderIntakeRequest(
+        String orderNumber,
+        LocalDateTime orderTime,
+        Long drinkId,
+        int quantity,
+        String customerPhone,
+        String customerName,
+        String idempotencyKey) {
+}
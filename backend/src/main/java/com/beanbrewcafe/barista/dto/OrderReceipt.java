@@ -0,0 +1,10 @@
+package com.beanbrewcafe.barista.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response body for an order accepted by the async intake pipeline (HTTP 202).
+ * Poll {@code statusUrl} until the order is persisted.
+ */
+public record OrderReceipt(String orderNumber, String status, LocalDateTime acceptedAt, String statusUrl) {
+}
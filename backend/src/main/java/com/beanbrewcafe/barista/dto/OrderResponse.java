@@ -1,9 +1,11 @@
 package com.beanbrewcafe.barista.dto;
 
+import com.beanbrewcafe.barista.event.OrderSnapshot;
 import com.beanbrewcafe.barista.model.Order;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Data
 public class OrderResponse {
@@ -18,6 +20,7 @@ public class OrderResponse {
     private String baristaName;
     private LocalDateTime orderTime;
     private Integer estimatedPrepTime;
+    private String batchId;
 
     public static OrderResponse fromOrder(Order order) {
         OrderResponse response = new OrderResponse();
@@ -31,6 +34,7 @@ public class OrderResponse {
         response.setEmergencyFlag(order.isEmergencyFlag());
         response.setOrderTime(order.getOrderTime());
         response.setEstimatedPrepTime(order.getEstimatedPrepTime());
+        response.setBatchId(order.getBatchId());
 
         if (order.getBarista() != null) {
             response.setBaristaName(order.getBarista().getName());
@@ -38,4 +42,23 @@ public class OrderResponse {
 
         return response;
     }
+
+    public static OrderResponse fromSnapshot(OrderSnapshot order) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.id());
+        response.setOrderNumber(order.orderNumber());
+        response.setDrinkName(order.drinkName());
+        response.setQuantity(order.quantity());
+        response.setStatus(order.status().name());
+        response.setPriorityScore(order.priorityScore());
+        response.setCurrentWaitMinutes(order.waitTimeMinutes() != null
+                ? Math.max(order.waitTimeMinutes(), 0)
+                : (int) Math.max(ChronoUnit.MINUTES.between(order.orderTime(), LocalDateTime.now()), 0));
+        response.setEmergencyFlag(order.emergencyFlag());
+        response.setOrderTime(order.orderTime());
+        response.setEstimatedPrepTime(order.estimatedPrepTime());
+        response.setBatchId(order.batchId());
+        response.setBaristaName(order.baristaName());
+        return response;
+    }
 }
\ No newline at end of file
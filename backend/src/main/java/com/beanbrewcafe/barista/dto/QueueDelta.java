@@ -0,0 +1,29 @@
+package com.beanbrewcafe.barista.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One change to the live queue feed. Payload size is independent of queue length.
+ *
+ * INSERT: entry placed at index
+ * REMOVE: order removed from index
+ * MOVE:   order moved from fromIndex to index (priority changed)
+ * FIELD:  order stays at index, only the listed fields changed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QueueDelta(
+        long epoch,
+        long sequence,
+        Op op,
+        long orderId,
+        Integer index,
+        Integer fromIndex,
+        QueueFeedEntry entry,
+        Map<String, Object> fields) {
+
+    public enum Op {
+        INSERT, REMOVE, MOVE, FIELD
+    }
+}
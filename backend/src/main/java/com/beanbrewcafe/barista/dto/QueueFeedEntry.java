@@ -0,0 +1,24 @@
+package com.beanbrewcafe.barista.dto;
+
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Compact row of the live queue feed
+ */
+public record QueueFeedEntry(
+        Long id,
+        String orderNumber,
+        String drinkName,
+        int quantity,
+        BigDecimal priorityScore,
+        boolean emergencyFlag,
+        LocalDateTime orderTime) {
+
+    public static QueueFeedEntry of(OrderSnapshot order) {
+        return new QueueFeedEntry(order.id(), order.orderNumber(), order.drinkName(), order.quantity(),
+                order.priorityScore(), order.emergencyFlag(), order.orderTime());
+    }
+}
@@ -0,0 +1,9 @@
+package com.beanbrewcafe.barista.dto;
+
+import java.util.List;
+
+/**
+ * Full queue state at a sequence number. Apply deltas with sequence > this one.
+ */
+public record QueueFeedSnapshot(long epoch, long sequence, List<QueueFeedEntry> orders) {
+}
@@ -0,0 +1,19 @@
+package com.beanbrewcafe.barista.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * STOMP payload pushed to /topic/orders and /topic/baristas
+ */
+@Data
+@AllArgsConstructor
+public class QueueUpdateMessage<T> {
+    private UpdateType type;
+    private T payload;
+    private long timestamp;
+
+    public enum UpdateType {
+        CREATED, ASSIGNED, COMPLETED, CANCELLED, ESCALATED, REPRIORITIZED, UPDATED, DELETED, STATUS_CHANGED
+    }
+}
@@ -0,0 +1,14 @@
+package com.beanbrewcafe.barista.event;
+
+/**
+ * Published whenever a barista row is inserted, updated or deleted.
+ *
+ * @param previous state as last loaded or published (null for CREATED)
+ * @param current  state as written (for DELETED, the state before removal)
+ */
+public record BaristaChangedEvent(ChangeType type, BaristaSnapshot previous, BaristaSnapshot current) {
+
+    public boolean statusChanged() {
+        return previous == null || previous.status() != current.status();
+    }
+}
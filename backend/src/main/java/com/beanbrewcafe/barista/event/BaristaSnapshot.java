@@ -0,0 +1,30 @@
+package com.beanbrewcafe.barista.event;
+
+import com.beanbrewcafe.barista.model.Barista;
+
+/**
+ * Immutable copy of a barista's state at the moment it was persisted.
+ * workSlots is the barista's own setting (null = baristas.default-work-slots; see WorkSlots).
+ */
+public record BaristaSnapshot(
+        Long id,
+        String name,
+        Barista.BaristaStatus status,
+        int currentWorkload,
+        int totalOrdersServed,
+        Integer workSlots) {
+
+    public static BaristaSnapshot of(Barista barista) {
+        return new BaristaSnapshot(
+                barista.getId(),
+                barista.getName(),
+                barista.getStatus(),
+                barista.getCurrentWorkload() != null ? barista.getCurrentWorkload() : 0,
+                barista.getTotalOrdersServed() != null ? barista.getTotalOrdersServed() : 0,
+                barista.getWorkSlots());
+    }
+
+    public boolean isActive() {
+        return status != Barista.BaristaStatus.OFFLINE;
+    }
+}
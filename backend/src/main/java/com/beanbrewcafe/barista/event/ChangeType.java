@@ -0,0 +1,8 @@
+package com.beanbrewcafe.barista.event;
+
+/**
+ * Kind of persistence change carried by entity change events
+ */
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,7 @@
+package com.beanbrewcafe.barista.event;
+
+/**
+ * Published whenever a drink (menu) row is inserted, updated or deleted.
+ */
+public record DrinkChangedEvent(ChangeType type, Long drinkId) {
+}
@@ -0,0 +1,67 @@
+package com.beanbrewcafe.barista.event;
+
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.model.Order;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns order, barista and drink writes into Spring events.
+ *
+ * Every code path that saves an Order or Barista (services, schedulers, test data)
+ * goes through here, so in-memory views such as the queue position index stay in
+ * sync without each writer having to notify them. Consumers should use
+ * {@code @TransactionalEventListener} so they only observe committed state.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Order order) {
+            order.setLastSnapshot(OrderSnapshot.of(order));
+        } else if (entity instanceof Barista barista) {
+            barista.setLastSnapshot(BaristaSnapshot.of(barista));
+        }
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, ChangeType type) {
+        if (entity instanceof Order order) {
+            OrderSnapshot current = OrderSnapshot.of(order);
+            OrderSnapshot previous = type == ChangeType.CREATED ? null : order.getLastSnapshot();
+            order.setLastSnapshot(current);
+            eventPublisher.publishEvent(new OrderChangedEvent(type, previous, current));
+        } else if (entity instanceof Barista barista) {
+            BaristaSnapshot current = BaristaSnapshot.of(barista);
+            BaristaSnapshot previous = type == ChangeType.CREATED ? null : barista.getLastSnapshot();
+            barista.setLastSnapshot(current);
+            eventPublisher.publishEvent(new BaristaChangedEvent(type, previous, current));
+        } else if (entity instanceof Drink drink) {
+            eventPublisher.publishEvent(new DrinkChangedEvent(type, drink.getId()));
+        }
+    }
+}
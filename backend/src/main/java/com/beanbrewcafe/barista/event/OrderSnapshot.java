@@ -0,0 +1,81 @@
+package com.beanbrewcafe.barista.event;
+
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Customer;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.model.Order;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of an order's state at the moment it was persisted.
+ * Change events carry snapshots because the entity keeps mutating after the flush.
+ */
+public record OrderSnapshot(
+        Long id,
+        String orderNumber,
+        Order.OrderStatus status,
+        BigDecimal priorityScore,
+        boolean emergencyFlag,
+        LocalDateTime orderTime,
+        LocalDateTime assignedTime,
+        LocalDateTime completionTime,
+        Integer waitTimeMinutes,
+        Integer skippedCount,
+        int quantity,
+        Long drinkId,
+        String drinkName,
+        int drinkPrepTime,
+        Integer assignedPrepMinutes,
+        String batchId,
+        Long baristaId,
+        String baristaName,
+        Customer.LoyaltyStatus loyaltyStatus,
+        boolean testOrder) {
+
+    public static OrderSnapshot of(Order order) {
+        Drink drink = order.getDrink();
+        Barista barista = order.getBarista();
+        Customer customer = order.getCustomer();
+
+        // Associations may still be uninitialized proxies during load callbacks;
+        // only their ids are safe to read without triggering a fetch
+        boolean drinkLoaded = drink != null && Hibernate.isInitialized(drink);
+        boolean baristaLoaded = barista != null && Hibernate.isInitialized(barista);
+        boolean customerLoaded = customer != null && Hibernate.isInitialized(customer);
+
+        return new OrderSnapshot(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus(),
+                order.getPriorityScore(),
+                order.isEmergencyFlag(),
+                order.getOrderTime(),
+                order.getAssignedTime(),
+                order.getCompletionTime(),
+                order.getWaitTimeMinutes(),
+                order.getSkippedCount(),
+                order.getQuantity() != null ? order.getQuantity() : 1,
+                drink != null ? drink.getId() : null,
+                drinkLoaded ? drink.getName() : null,
+                drinkLoaded && drink.getPrepTime() != null ? drink.getPrepTime() : 0,
+                order.getAssignedPrepMinutes(),
+                order.getBatchId(),
+                barista != null ? barista.getId() : null,
+                baristaLoaded ? barista.getName() : null,
+                customerLoaded ? customer.getLoyaltyStatus() : null,
+                Boolean.TRUE.equals(order.getIsTestOrder()));
+    }
+
+    /**
+     * Total preparation time for this order, same as Order.getEstimatedPrepTime()
+     */
+    public int estimatedPrepTime() {
+        if (assignedPrepMinutes != null) {
+            return assignedPrepMinutes;
+        }
+        return drinkPrepTime * quantity;
+    }
+}
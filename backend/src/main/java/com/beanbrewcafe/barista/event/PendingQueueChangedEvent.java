@@ -0,0 +1,22 @@
+package com.beanbrewcafe.barista.event;
+
+/**
+ * Published by QueuePositionIndex whenever a committed change touches a pending
+ * order: it joined, left or changed within the pending queue. Published while the
+ * index holds its write lock, so listeners see changes in the order they were applied.
+ *
+ * @param previous  state before the change (null if the order was not pending)
+ * @param current   state after the change (null if the order is no longer pending)
+ * @param fromIndex 0-based queue index before the change (null if not pending)
+ * @param toIndex   0-based queue index after the change (null if no longer pending)
+ */
+public record PendingQueueChangedEvent(
+        OrderSnapshot previous,
+        OrderSnapshot current,
+        Integer fromIndex,
+        Integer toIndex) {
+
+    public Long orderId() {
+        return current != null ? current.id() : previous.id();
+    }
+}
@@ -0,0 +1,64 @@
+package com.beanbrewcafe.barista.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One call to PriorityQueueService.assignNextOrder: which rule fired, on what inputs.
+ * The event duration covers the whole decision including the queue read.
+ */
+@Name("com.beanbrewcafe.barista.AssignmentDecision")
+@Label("Assignment Decision")
+@Category({ "Barista Queue", "Scheduling" })
+@Description("Order selected for a barista and the rule that selected it")
+public class AssignmentDecisionEvent extends Event {
+
+    @Label("Barista Id")
+    public long baristaId;
+
+    @Label("Barista")
+    public String baristaName;
+
+    @Label("Barista Workload")
+    @Description("Barista workload in minutes before the assignment")
+    public int baristaWorkload;
+
+    @Label("Average Workload")
+    public double averageWorkload;
+
+    @Label("Workload Ratio")
+    public double workloadRatio;
+
+    @Label("Rule")
+    @Description("EMERGENCY, OVERLOADED_QUICK, DEFAULT, LOOKAHEAD or NONE")
+    public String rule;
+
+    @Label("Candidates")
+    public int candidateCount;
+
+    @Label("Emergency Candidates")
+    public int emergencyCandidates;
+
+    @Label("Selected Order")
+    public String selectedOrderNumber;
+
+    @Label("Selected Priority")
+    public double selectedPriority;
+
+    @Label("Selected Prep Time")
+    public int selectedPrepTime;
+
+    @Label("Selected Wait Minutes")
+    public int selectedWaitMinutes;
+
+    @Label("Batch Size")
+    @Description("Orders prepared together with the selected one, including it")
+    public int batchSize;
+
+    @Label("Top Candidate")
+    @Description("Highest priority pending order at decision time")
+    public String topCandidateOrderNumber;
+}
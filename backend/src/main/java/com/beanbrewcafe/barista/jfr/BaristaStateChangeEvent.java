@@ -0,0 +1,38 @@
+package com.beanbrewcafe.barista.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A barista moved between AVAILABLE, BUSY and OFFLINE
+ */
+@Name("com.beanbrewcafe.barista.BaristaStateChange")
+@Label("Barista State Change")
+@Category({ "Barista Queue", "Baristas" })
+@Description("Barista status transition")
+public class BaristaStateChangeEvent extends Event {
+
+    @Label("Barista Id")
+    public long baristaId;
+
+    @Label("Barista")
+    public String baristaName;
+
+    @Label("From")
+    public String fromStatus;
+
+    @Label("To")
+    public String toStatus;
+
+    @Label("Workload")
+    public int workload;
+
+    @Label("Time In Previous State")
+    @Description("How long the barista stayed in the previous status (0 if unknown)")
+    @Timespan(Timespan.MILLISECONDS)
+    public long timeInPreviousState;
+}
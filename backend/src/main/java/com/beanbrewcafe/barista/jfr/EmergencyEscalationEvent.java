@@ -0,0 +1,32 @@
+package com.beanbrewcafe.barista.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An order crossed the emergency threshold and was flagged
+ */
+@Name("com.beanbrewcafe.barista.EmergencyEscalation")
+@Label("Emergency Escalation")
+@Category({ "Barista Queue", "Scheduling" })
+@Description("Pending order flagged as emergency")
+public class EmergencyEscalationEvent extends Event {
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Order")
+    public String orderNumber;
+
+    @Label("Wait Minutes")
+    public int waitMinutes;
+
+    @Label("Priority")
+    public double priorityScore;
+
+    @Label("Skipped Count")
+    public int skippedCount;
+}
@@ -0,0 +1,31 @@
+package com.beanbrewcafe.barista.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One priority recalculation pass over the pending queue
+ */
+@Name("com.beanbrewcafe.barista.PriorityRecalculation")
+@Label("Priority Recalculation")
+@Category({ "Barista Queue", "Scheduling" })
+@Description("Pass that rescored pending orders")
+public class PriorityRecalculationEvent extends Event {
+
+    @Label("Source")
+    @Description("Job or service that ran the pass")
+    public String source;
+
+    @Label("Orders Scanned")
+    public int ordersScanned;
+
+    @Label("Scores Changed")
+    public int scoresChanged;
+
+    @Label("Escalations")
+    @Description("Orders newly flagged as emergency during the pass")
+    public int escalations;
+}
@@ -0,0 +1,73 @@
+package com.beanbrewcafe.barista.jfr;
+
+import com.beanbrewcafe.barista.event.BaristaChangedEvent;
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.beanbrewcafe.barista.model.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits JFR events for committed escalations and barista state changes.
+ *
+ * Escalations can be set by any scoring path (Order.calculatePriorityScore, the
+ * recalculation jobs), so they are detected from the change stream rather than
+ * at each call site.
+ */
+@Component
+public class SchedulingFlightRecorder {
+
+    private final Map<Long, Long> lastStateChangeMillis = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderSnapshot order = event.current();
+        boolean escalated = order.emergencyFlag()
+                && order.status() == Order.OrderStatus.PENDING
+                && (event.previous() == null || !event.previous().emergencyFlag());
+        if (!escalated) {
+            return;
+        }
+
+        EmergencyEscalationEvent jfrEvent = new EmergencyEscalationEvent();
+        if (!jfrEvent.isEnabled()) {
+            return;
+        }
+        jfrEvent.orderId = order.id();
+        jfrEvent.orderNumber = order.orderNumber();
+        jfrEvent.waitMinutes = order.orderTime() != null
+                ? (int) Duration.between(order.orderTime(), LocalDateTime.now()).toMinutes()
+                : 0;
+        jfrEvent.priorityScore = order.priorityScore() != null ? order.priorityScore().doubleValue() : 0;
+        jfrEvent.skippedCount = order.skippedCount() != null ? order.skippedCount() : 0;
+        jfrEvent.commit();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaristaChanged(BaristaChangedEvent event) {
+        if (event.type() == ChangeType.DELETED || !event.statusChanged()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long since = lastStateChangeMillis.put(event.current().id(), now);
+
+        BaristaStateChangeEvent jfrEvent = new BaristaStateChangeEvent();
+        if (!jfrEvent.isEnabled()) {
+            return;
+        }
+        jfrEvent.baristaId = event.current().id();
+        jfrEvent.baristaName = event.current().name();
+        jfrEvent.fromStatus = event.previous() != null ? event.previous().status().name() : null;
+        jfrEvent.toStatus = event.current().status().name();
+        jfrEvent.workload = event.current().currentWorkload();
+        jfrEvent.timeInPreviousState = since != null ? now - since : 0;
+        jfrEvent.commit();
+    }
+}
@@ -1,13 +1,18 @@
 package com.beanbrewcafe.barista.model;
 
+import com.beanbrewcafe.barista.event.BaristaSnapshot;
+import com.beanbrewcafe.barista.event.EntityChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "baristas")
+@EntityListeners(EntityChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +32,10 @@ public class Barista {
     @Column(name = "current_workload")
     private Integer currentWorkload = 0; // in minutes
 
+    // Orders in progress at once (null = baristas.default-work-slots)
+    @Column(name = "work_slots")
+    private Integer workSlots;
+
     @Column(name = "total_orders_served")
     private Integer totalOrdersServed = 0;
 
@@ -36,6 +45,12 @@ public class Barista {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Last loaded/persisted state, used as the "previous" side of change events
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private transient BaristaSnapshot lastSnapshot;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
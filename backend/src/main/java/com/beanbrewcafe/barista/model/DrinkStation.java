@@ -0,0 +1,36 @@
+package com.beanbrewcafe.barista.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One step of a drink's recipe: the station it occupies and for how long per unit.
+ * Steps run in ascending sequence (shot first, then milk).
+ */
+@Entity
+@Table(name = "drink_stations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrinkStation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "drink_id", nullable = false)
+    private Drink drink;
+
+    @ManyToOne
+    @JoinColumn(name = "station_id", nullable = false)
+    private Station station;
+
+    @Column(nullable = false)
+    private Integer minutes; // per unit
+
+    @Column(nullable = false)
+    private Integer sequence = 1;
+}
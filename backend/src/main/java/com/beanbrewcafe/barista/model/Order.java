@@ -1,15 +1,20 @@
 package com.beanbrewcafe.barista.model;
 
+import com.beanbrewcafe.barista.event.EntityChangeListener;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(EntityChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -62,15 +67,33 @@ public class Order {
     @Column(name = "emergency_flag")
     private boolean emergencyFlag = false;
 
+    // Minutes charged when assigned; for a batch, the whole batch's prep time
+    @Column(name = "assigned_prep_minutes")
+    private Integer assignedPrepMinutes;
+
+    // Order number of the batch lead when prepared together with identical drinks
+    @Column(name = "batch_id", length = 20)
+    private String batchId;
+
     @Column(name = "is_test_order")
     private Boolean isTestOrder = false;
 
+    // Client-supplied Idempotency-Key of the request that created this order
+    @Column(name = "idempotency_key", unique = true, length = 64)
+    private String idempotencyKey;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Last loaded/persisted state, used as the "previous" side of change events
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private transient OrderSnapshot lastSnapshot;
+
     @PrePersist
     protected void onCreate() {
         if (orderTime == null) {
@@ -86,7 +109,7 @@ public class Order {
     }
 
     /**
-     * CORE ALGORITHM: Calculate priority score based on:
+     * CORE ALGORITHM: Calculate priority score (see PriorityFormula) based on:
      * - Wait time (40%): Longer wait = higher priority
      * - Order complexity (25%): Shorter orders get bonus
      * - Loyalty status (10%): Gold members get boost
@@ -95,51 +118,24 @@ public class Order {
      * @return BigDecimal priority score (0-100)
      */
     public BigDecimal calculatePriorityScore() {
-        double score = 0.0;
+        return calculatePriorityScore(drink.getPrepTime() * quantity);
+    }
 
-        // 1. Wait Time Component (40% weight)
+    /**
+     * Same as calculatePriorityScore(), with the complexity term taken from a
+     * prep-time estimate instead of the static drink prep time
+     */
+    public BigDecimal calculatePriorityScore(int prepMinutes) {
         long waitMinutes = Math.max(
                 ChronoUnit.MINUTES.between(orderTime, LocalDateTime.now()),
                 0);
-        double waitScore = Math.min(waitMinutes * 4.0, 40.0); // Max 40 points
-        score += waitScore;
-
-        // 2. Order Complexity Component (25% weight)
-        // Shorter prep times get higher scores for better throughput
-        int prepTime = drink.getPrepTime() * quantity;
-        double complexityScore = 25.0 - (prepTime * 2.5); // 1 min = 22.5, 6 min = 10
-        complexityScore = Math.max(complexityScore, 10.0); // Minimum 10 points
-        score += complexityScore;
-
-        // 3. Loyalty Status Component (10% weight)
-        if (customer != null) {
-            switch (customer.getLoyaltyStatus()) {
-                case GOLD -> score += 10.0;
-                case REGULAR -> score += 5.0;
-                case NEW -> score += 0.0;
-            }
-        }
-
-        // 4. Urgency Component (25% weight)
-        // Emergency boost for orders approaching timeout
-        if (waitMinutes >= 8) {
-            // CRITICAL: Customer approaching 10-minute hard limit
-            score += 50.0; // Significant emergency boost
+        if (waitMinutes >= PriorityFormula.EMERGENCY_WAIT_MINUTES) {
             this.emergencyFlag = true;
-        } else if (waitMinutes >= 6) {
-            score += 25.0;
-        } else if (waitMinutes >= 4) {
-            score += 15.0;
-        }
-
-        // 5. Fairness Penalty
-        // If too many people have been skipped, increase priority
-        if (skippedCount > 3) {
-            score += skippedCount * 5.0;
         }
 
-        // Cap at 100 points
-        this.priorityScore = BigDecimal.valueOf(Math.min(score, 100.0));
+        double score = PriorityFormula.score(waitMinutes, prepMinutes,
+                customer != null ? customer.getLoyaltyStatus() : null, skippedCount);
+        this.priorityScore = BigDecimal.valueOf(score);
         return this.priorityScore;
     }
 
@@ -165,11 +161,23 @@ public class Order {
 
     /**
      * Get total preparation time for this order
+     * Once assigned, the prep time charged at assignment (shared by a whole batch)
      */
     public Integer getEstimatedPrepTime() {
+        if (assignedPrepMinutes != null) {
+            return assignedPrepMinutes;
+        }
         return drink.getPrepTime() * quantity;
     }
 
+    /**
+     * True for orders that carry the barista workload of their batch
+     * (unbatched orders and batch leads)
+     */
+    public boolean isBatchLead() {
+        return batchId == null || batchId.equals(orderNumber);
+    }
+
     public enum OrderStatus {
         PENDING, IN_PROGRESS, COMPLETED, CANCELLED
     }
@@ -0,0 +1,65 @@
+package com.beanbrewcafe.barista.model;
+
+/**
+ * The canonical priority score (0-100), shared by Order.calculatePriorityScore
+ * and anything that scores orders at a time other than now (trace replay)
+ *
+ * - Wait time (40%): Longer wait = higher priority
+ * - Order complexity (25%): Shorter orders get bonus
+ * - Loyalty status (10%): Gold members get boost
+ * - Urgency (25%): Approaching timeout gets significant boost
+ */
+public final class PriorityFormula {
+
+    // Service target: an order should be ready within this many minutes of being placed
+    public static final int MAX_WAIT_MINUTES = 10;
+
+    // Orders waiting this long are emergencies
+    public static final int EMERGENCY_WAIT_MINUTES = 8;
+
+    private PriorityFormula() {
+    }
+
+    public static double score(long waitMinutes, int prepMinutes, Customer.LoyaltyStatus loyaltyStatus,
+            int skippedCount) {
+        double score = 0.0;
+
+        // 1. Wait Time Component (40% weight)
+        waitMinutes = Math.max(waitMinutes, 0);
+        score += Math.min(waitMinutes * 4.0, 40.0); // Max 40 points
+
+        // 2. Order Complexity Component (25% weight)
+        // Shorter prep times get higher scores for better throughput
+        double complexityScore = 25.0 - (prepMinutes * 2.5); // 1 min = 22.5, 6 min = 10
+        score += Math.max(complexityScore, 10.0); // Minimum 10 points
+
+        // 3. Loyalty Status Component (10% weight)
+        if (loyaltyStatus != null) {
+            switch (loyaltyStatus) {
+                case GOLD -> score += 10.0;
+                case REGULAR -> score += 5.0;
+                case NEW -> score += 0.0;
+            }
+        }
+
+        // 4. Urgency Component (25% weight)
+        // Emergency boost for orders approaching timeout
+        if (waitMinutes >= EMERGENCY_WAIT_MINUTES) {
+            // CRITICAL: Customer approaching 10-minute hard limit
+            score += 50.0; // Significant emergency boost
+        } else if (waitMinutes >= 6) {
+            score += 25.0;
+        } else if (waitMinutes >= 4) {
+            score += 15.0;
+        }
+
+        // 5. Fairness Penalty
+        // If too many people have been skipped, increase priority
+        if (skippedCount > 3) {
+            score += skippedCount * 5.0;
+        }
+
+        // Cap at 100 points
+        return Math.min(score, 100.0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.beanbrewcafe.barista.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A piece of shared equipment (espresso machine, steam wand, ...) and how many
+ * drinks it can work on at once (group heads, wands, taps)
+ */
+@Entity
+@Table(name = "stations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Station {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer capacity = 1;
+}
@@ -3,9 +3,13 @@ package com.beanbrewcafe.barista.repository;
 import com.beanbrewcafe.barista.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByPhone(String phone);
+
+    List<Customer> findByPhoneIn(Collection<String> phones);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.beanbrewcafe.barista.repository;
+
+import com.beanbrewcafe.barista.model.DrinkStation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface DrinkStationRepository extends JpaRepository<DrinkStation, Long> {
+
+    // All recipe steps with their drink and station, in step order
+    @Query("SELECT ds FROM DrinkStation ds JOIN FETCH ds.drink JOIN FETCH ds.station " +
+            "ORDER BY ds.drink.id, ds.sequence")
+    List<DrinkStation> findAllWithDrinkAndStation();
+}
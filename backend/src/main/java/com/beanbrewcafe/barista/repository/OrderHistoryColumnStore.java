@@ -0,0 +1,343 @@
+package com.beanbrewcafe.barista.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Order History Column Store
+ * Append-only, memory-mapped columnar storage for completed orders
+ *
+ * FILE LAYOUT (one file per segment of {@code capacity} rows):
+ * - 16-byte header: magic, version, capacity, row count
+ * - One fixed-size primitive column per field, laid out back to back:
+ *   order id, order time, completion time (epoch millis, long),
+ *   drink id, barista id, wait minutes, prep minutes, quantity,
+ *   drink name code, barista name code (int)
+ *
+ * Strings are dictionary-encoded into dictionary.txt (code = line number).
+ * Each order id is stored at most once, so replaying a completion is a no-op.
+ * backfill.done marks that the one-off import of existing orders finished.
+ * Columns live in mapped files outside the Java heap, so analytics scans read
+ * them at memory bandwidth without creating objects or touching MySQL.
+ */
+@Repository
+@Slf4j
+public class OrderHistoryColumnStore {
+
+    private static final int MAGIC = 0x4F484353; // "OHCS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ROW_COUNT_OFFSET = 12;
+
+    /** Column widths in bytes, in file order */
+    private static final int[] COLUMN_WIDTHS = { 8, 8, 8, 4, 4, 4, 4, 4, 4, 4 };
+    private static final int ORDER_ID = 0;
+    private static final int ORDER_TIME = 1;
+    private static final int COMPLETION_TIME = 2;
+    private static final int DRINK_ID = 3;
+    private static final int BARISTA_ID = 4;
+    private static final int WAIT_MINUTES = 5;
+    private static final int PREP_MINUTES = 6;
+    private static final int QUANTITY = 7;
+    private static final int DRINK_NAME = 8;
+    private static final int BARISTA_NAME = 9;
+
+    public static final int NO_VALUE = -1;
+
+    private static final String BACKFILL_MARKER = "backfill.done";
+
+    private final Path directory;
+    private final int capacity;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    // Ids of stored orders; auto-increment ids stay small, so a bitmap stays compact
+    private final BitSet orderIds = new BitSet();
+    private BufferedWriter dictionaryWriter;
+
+    public OrderHistoryColumnStore(
+            @Value("${history.columnar.dir:./data/order-history}") String directory,
+            @Value("${history.columnar.segment-rows:65536}") int capacity) {
+        this.directory = Path.of(directory);
+        this.capacity = capacity;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+
+        Path dictionaryFile = directory.resolve("dictionary.txt");
+        if (Files.exists(dictionaryFile)) {
+            for (String value : Files.readAllLines(dictionaryFile, StandardCharsets.UTF_8)) {
+                dictionaryCodes.put(value, dictionary.size());
+                dictionary.add(value);
+            }
+        }
+        dictionaryWriter = Files.newBufferedWriter(dictionaryFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segmentFiles = files
+                    .filter(path -> path.getFileName().toString().matches("segment-\\d+\\.col"))
+                    .sorted()
+                    .toList();
+            for (Path file : segmentFiles) {
+                Segment segment = Segment.map(file, capacity, false);
+                for (int row = 0; row < segment.rows(); row++) {
+                    orderIds.set(Math.toIntExact(segment.orderId(row)));
+                }
+                segments.add(segment);
+            }
+        }
+
+        log.info("Opened order history column store at {}: {} segments, {} rows, {} dictionary entries",
+                directory.toAbsolutePath(), segments.size(), rowCount(), dictionary.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        if (dictionaryWriter != null) {
+            dictionaryWriter.close();
+        }
+    }
+
+    /**
+     * Append one completed order unless it is already stored.
+     * Single writer; readers only ever see fully written rows.
+     *
+     * @return false if the order was already in the store
+     */
+    public synchronized boolean append(long orderId, long orderTimeMillis, long completionTimeMillis,
+            int drinkId, int baristaId, int waitMinutes, int prepMinutes, int quantity,
+            String drinkName, String baristaName) {
+        int id = Math.toIntExact(orderId);
+        if (orderIds.get(id)) {
+            return false;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.rows() >= segment.capacity) {
+            segment = newSegment();
+        }
+
+        int row = segment.rows();
+        segment.putLong(ORDER_ID, row, orderId);
+        segment.putLong(ORDER_TIME, row, orderTimeMillis);
+        segment.putLong(COMPLETION_TIME, row, completionTimeMillis);
+        segment.putInt(DRINK_ID, row, drinkId);
+        segment.putInt(BARISTA_ID, row, baristaId);
+        segment.putInt(WAIT_MINUTES, row, waitMinutes);
+        segment.putInt(PREP_MINUTES, row, prepMinutes);
+        segment.putInt(QUANTITY, row, quantity);
+        segment.putInt(DRINK_NAME, row, encode(drinkName));
+        segment.putInt(BARISTA_NAME, row, encode(baristaName));
+        segment.publishRows(row + 1);
+        orderIds.set(id);
+        return true;
+    }
+
+    /**
+     * Visit every segment (oldest first) with a read-only view of its committed rows
+     */
+    public void scan(Consumer<Segment> visitor) {
+        List<Segment> snapshot;
+        synchronized (this) {
+            snapshot = List.copyOf(segments);
+        }
+        snapshot.forEach(visitor);
+    }
+
+    public synchronized String decode(int code) {
+        return code >= 0 && code < dictionary.size() ? dictionary.get(code) : null;
+    }
+
+    public synchronized long rowCount() {
+        return segments.stream().mapToLong(Segment::rows).sum();
+    }
+
+    public boolean isBackfilled() {
+        return Files.exists(directory.resolve(BACKFILL_MARKER));
+    }
+
+    public synchronized void markBackfilled() {
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+            }
+            Files.writeString(directory.resolve(BACKFILL_MARKER), rowCount() + System.lineSeparator(),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to mark history backfill complete", e);
+        }
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        Integer code = dictionaryCodes.get(value);
+        if (code != null) {
+            return code;
+        }
+        try {
+            dictionaryWriter.write(value.replace('\n', ' '));
+            dictionaryWriter.newLine();
+            dictionaryWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to extend history dictionary", e);
+        }
+        code = dictionary.size();
+        dictionary.add(value);
+        dictionaryCodes.put(value, code);
+        return code;
+    }
+
+    private Segment newSegment() {
+        Path file = directory.resolve(String.format("segment-%06d.col", segments.size()));
+        try {
+            Segment segment = Segment.map(file, capacity, true);
+            segments.add(segment);
+            log.info("Started history segment {}", file.getFileName());
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create history segment " + file, e);
+        }
+    }
+
+    /**
+     * One memory-mapped segment file. Column accessors are absolute reads, so many
+     * scanners can share a segment concurrently with the single appender.
+     */
+    public static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final int[] columnOffsets = new int[COLUMN_WIDTHS.length];
+        private volatile int rows;
+
+        private Segment(MappedByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            int offset = HEADER_BYTES;
+            for (int column = 0; column < COLUMN_WIDTHS.length; column++) {
+                columnOffsets[column] = offset;
+                offset += COLUMN_WIDTHS[column] * capacity;
+            }
+        }
+
+        static Segment map(Path file, int capacity, boolean create) throws IOException {
+            long size = HEADER_BYTES;
+            for (int width : COLUMN_WIDTHS) {
+                size += (long) width * capacity;
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+                if (create) {
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(8, capacity);
+                    buffer.putInt(ROW_COUNT_OFFSET, 0);
+                } else if (buffer.getInt(0) != MAGIC || buffer.getInt(8) != capacity) {
+                    throw new IOException("Not a compatible history segment: " + file);
+                }
+
+                Segment segment = new Segment(buffer, capacity);
+                segment.rows = buffer.getInt(ROW_COUNT_OFFSET);
+                return segment;
+            }
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public long orderId(int row) {
+            return getLong(ORDER_ID, row);
+        }
+
+        public long orderTime(int row) {
+            return getLong(ORDER_TIME, row);
+        }
+
+        public long completionTime(int row) {
+            return getLong(COMPLETION_TIME, row);
+        }
+
+        public int drinkId(int row) {
+            return getInt(DRINK_ID, row);
+        }
+
+        public int baristaId(int row) {
+            return getInt(BARISTA_ID, row);
+        }
+
+        public int waitMinutes(int row) {
+            return getInt(WAIT_MINUTES, row);
+        }
+
+        public int prepMinutes(int row) {
+            return getInt(PREP_MINUTES, row);
+        }
+
+        public int quantity(int row) {
+            return getInt(QUANTITY, row);
+        }
+
+        public int drinkNameCode(int row) {
+            return getInt(DRINK_NAME, row);
+        }
+
+        public int baristaNameCode(int row) {
+            return getInt(BARISTA_NAME, row);
+        }
+
+        private long getLong(int column, int row) {
+            return buffer.getLong(columnOffsets[column] + row * 8);
+        }
+
+        private int getInt(int column, int row) {
+            return buffer.getInt(columnOffsets[column] + row * 4);
+        }
+
+        private void putLong(int column, int row, long value) {
+            buffer.putLong(columnOffsets[column] + row * 8, value);
+        }
+
+        private void putInt(int column, int row, int value) {
+            buffer.putInt(columnOffsets[column] + row * 4, value);
+        }
+
+        private void publishRows(int count) {
+            buffer.putInt(ROW_COUNT_OFFSET, count);
+            rows = count;
+        }
+    }
+}
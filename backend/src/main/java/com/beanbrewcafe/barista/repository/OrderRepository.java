@@ -1,25 +1,37 @@
 package com.beanbrewcafe.barista.repository;
 
+import com.beanbrewcafe.barista.dto.OrderArrival;
+import com.beanbrewcafe.barista.dto.OrderFact;
 import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.model.PriorityFormula;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByStatus(Order.OrderStatus status);
 
+    Optional<Order> findByOrderNumber(String orderNumber);
+
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
     List<Order> findByStatusOrderByPriorityScoreDesc(Order.OrderStatus status);
 
     Optional<Order> findTopByStatusOrderByPriorityScoreDesc(Order.OrderStatus status);
 
     Optional<Order> findByBarista_NameAndStatus(String baristaName, Order.OrderStatus status);
 
-    Optional<Order> findByBaristaAndStatus(com.beanbrewcafe.barista.model.Barista barista, Order.OrderStatus status);
+    List<Order> findByBaristaAndStatus(com.beanbrewcafe.barista.model.Barista barista, Order.OrderStatus status);
 
     @Query("SELECT o FROM Order o WHERE o.status = 'PENDING' ORDER BY o.priorityScore DESC, o.orderTime ASC")
     List<Order> findPendingOrdersByPriority();
@@ -27,16 +39,32 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.barista.id = :baristaId AND o.status = 'IN_PROGRESS'")
     List<Order> findActiveOrdersByBarista(Long baristaId);
 
+    // Prep runs in progress for a barista: a batch counts once
+    @Query("SELECT COUNT(DISTINCT COALESCE(o.batchId, o.orderNumber)) FROM Order o " +
+            "WHERE o.barista.id = :baristaId AND o.status = 'IN_PROGRESS'")
+    long countActiveSlotsByBarista(Long baristaId);
+
     @Query("SELECT o FROM Order o WHERE o.orderTime BETWEEN :startTime AND :endTime")
     List<Order> findOrdersByTimeRange(LocalDateTime startTime, LocalDateTime endTime);
 
+    // Trace replay: arrivals in order-time order, capped by the page size
+    @Query("SELECT new com.beanbrewcafe.barista.dto.OrderArrival(o.id, o.orderNumber, o.orderTime, d.id, d.prepTime, "
+            + "o.quantity, c.loyaltyStatus) "
+            + "FROM Order o JOIN o.drink d LEFT JOIN o.customer c "
+            + "WHERE o.orderTime BETWEEN :startTime AND :endTime "
+            + "AND (:includeTestOrders = true OR o.isTestOrder IS NULL OR o.isTestOrder = false) "
+            + "ORDER BY o.orderTime, o.id")
+    List<OrderArrival> findOrderArrivals(LocalDateTime startTime, LocalDateTime endTime, boolean includeTestOrders,
+            Pageable page);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = 'PENDING' AND o.emergencyFlag = true")
     Long countEmergencyOrders();
 
     @Query("SELECT AVG(o.waitTimeMinutes) FROM Order o WHERE o.status = 'COMPLETED' AND o.orderTime >= :startTime")
     Double getAverageWaitTime(LocalDateTime startTime);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = 'COMPLETED' AND o.waitTimeMinutes > 10 AND o.orderTime >= :startTime")
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = 'COMPLETED' "
+            + "AND o.waitTimeMinutes > " + PriorityFormula.MAX_WAIT_MINUTES + " AND o.orderTime >= :startTime")
     Long countTimeoutOrders(LocalDateTime startTime);
 
     List<Order> findByBaristaIdAndStatus(Long baristaId, Order.OrderStatus status);
@@ -49,4 +77,34 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByBaristaIdAndStatusAndIsTestOrder(Long baristaId, Order.OrderStatus status, Boolean isTestOrder);
 
     Optional<Order> findTopByBaristaAndStatus(com.beanbrewcafe.barista.model.Barista barista, Order.OrderStatus status);
+
+    // Analytics: stream flat rows for a time range without loading entities.
+    // The fetch size only bounds memory because the datasource URL sets useCursorFetch=true
+    @Query("SELECT new com.beanbrewcafe.barista.dto.OrderFact(o.id, o.orderTime, o.assignedTime, o.completionTime, "
+            + "o.status, o.waitTimeMinutes, o.quantity, d.id, d.name, d.prepTime, b.id, b.name, "
+            + "o.assignedPrepMinutes, o.batchId) "
+            + "FROM Order o JOIN o.drink d LEFT JOIN o.barista b "
+            + "WHERE o.orderTime >= :startTime AND o.orderTime < :endTime")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<OrderFact> streamOrderFacts(LocalDateTime startTime, LocalDateTime endTime);
+
+    // Forecasting and order history: same rows without test orders, which would skew both
+    @Query("SELECT new com.beanbrewcafe.barista.dto.OrderFact(o.id, o.orderTime, o.assignedTime, o.completionTime, "
+            + "o.status, o.waitTimeMinutes, o.quantity, d.id, d.name, d.prepTime, b.id, b.name, "
+            + "o.assignedPrepMinutes, o.batchId) "
+            + "FROM Order o JOIN o.drink d LEFT JOIN o.barista b "
+            + "WHERE o.orderTime >= :startTime AND o.orderTime < :endTime "
+            + "AND (o.isTestOrder IS NULL OR o.isTestOrder = false)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<OrderFact> streamCustomerOrderFacts(LocalDateTime startTime, LocalDateTime endTime);
+
+    // Order history backfill: one bounded page of completed customer orders after an id (keyset paging)
+    @Query("SELECT new com.beanbrewcafe.barista.dto.OrderFact(o.id, o.orderTime, o.assignedTime, o.completionTime, "
+            + "o.status, o.waitTimeMinutes, o.quantity, d.id, d.name, d.prepTime, b.id, b.name, "
+            + "o.assignedPrepMinutes, o.batchId) "
+            + "FROM Order o JOIN o.drink d LEFT JOIN o.barista b "
+            + "WHERE o.id > :afterId AND o.status = :status AND o.completionTime IS NOT NULL "
+            + "AND (o.isTestOrder IS NULL OR o.isTestOrder = false) "
+            + "ORDER BY o.id")
+    List<OrderFact> findCustomerOrderFactsAfter(Long afterId, Order.OrderStatus status, Pageable page);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.beanbrewcafe.barista.repository;
+
+import com.beanbrewcafe.barista.model.Station;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StationRepository extends JpaRepository<Station, Long> {
+}
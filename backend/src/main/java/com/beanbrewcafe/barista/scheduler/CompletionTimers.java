@@ -0,0 +1,224 @@
+package com.beanbrewcafe.barista.scheduler;
+
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.service.PriorityQueueService;
+import com.beanbrewcafe.barista.service.WorkSlots;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Completion Timers
+ * Auto-completes each in-progress order exactly when its preparation is due
+ *
+ * Every IN_PROGRESS order holds one timer in a DelayQueue, due at
+ * assignedTime + estimated prep time. Timers are armed, re-armed and cancelled
+ * from committed order changes, so nothing polls the database. A single
+ * "order-completion" thread takes due timers, completes the order and, if that
+ * frees a work slot, assigns the barista's next order in the same transaction.
+ * That transaction runs through SchedulingRuntime.runExclusive, so it never
+ * overlaps a tick working on the same orders and baristas (neither entity is
+ * versioned, so concurrent writers would silently overwrite each other).
+ *
+ * Enabled with scheduler.completion=TIMER (the default); the scheduling runtime
+ * then drops its COMPLETE stage. With scheduler.completion=TICK completion stays
+ * on the tick and no timers are kept. With MANUAL nothing completes orders
+ * automatically: baristas report them done. PrepTimeEstimator learns in every
+ * mode; an auto-completion counts as "took at least this long".
+ */
+@Component
+@Slf4j
+public class CompletionTimers {
+
+    public enum Mode { TIMER, TICK, MANUAL }
+
+    private final OrderRepository orderRepository;
+    private final PriorityQueueService priorityQueueService;
+    private final WorkSlots workSlots;
+    private final SchedulingRuntime schedulingRuntime;
+    private final Mode mode;
+
+    private final DelayQueue<Timer> queue = new DelayQueue<>();
+    private final Map<Long, Timer> timers = new ConcurrentHashMap<>();
+    private final AtomicLong armed = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong reassigned = new AtomicLong();
+    private final AtomicLong totalLatenessMillis = new AtomicLong();
+    private final AtomicLong maxLatenessMillis = new AtomicLong();
+    private Thread worker;
+
+    public CompletionTimers(OrderRepository orderRepository,
+            PriorityQueueService priorityQueueService,
+            WorkSlots workSlots,
+            SchedulingRuntime schedulingRuntime,
+            @Value("${scheduler.completion:TIMER}") Mode mode) {
+        this.orderRepository = orderRepository;
+        this.priorityQueueService = priorityQueueService;
+        this.workSlots = workSlots;
+        this.schedulingRuntime = schedulingRuntime;
+        this.mode = mode;
+    }
+
+    public boolean isEnabled() {
+        return mode == Mode.TIMER;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (Order order : orderRepository.findByStatus(Order.OrderStatus.IN_PROGRESS)) {
+            arm(OrderSnapshot.of(order));
+        }
+        worker = new Thread(this::run, "order-completion");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Completion timers started with {} in-progress orders", timers.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        OrderSnapshot order = event.current();
+        if (event.type() != ChangeType.DELETED && order.status() == Order.OrderStatus.IN_PROGRESS) {
+            arm(order);
+        } else {
+            Timer timer = timers.remove(order.id());
+            if (timer != null && queue.remove(timer)) {
+                cancelled.incrementAndGet();
+            }
+        }
+    }
+
+    public TimerStats getStats() {
+        long firedCount = fired.get();
+        return new TimerStats(mode, timers.size(), armed.get(), firedCount, cancelled.get(), reassigned.get(),
+                firedCount == 0 ? 0.0 : (double) totalLatenessMillis.get() / firedCount,
+                maxLatenessMillis.get());
+    }
+
+    private void arm(OrderSnapshot order) {
+        LocalDateTime started = order.assignedTime() != null ? order.assignedTime() : LocalDateTime.now();
+        long dueAt = started.plusMinutes(order.estimatedPrepTime())
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        timers.compute(order.id(), (id, previous) -> {
+            if (previous != null && previous.dueAtMillis == dueAt) {
+                return previous; // unchanged; keep the queued timer
+            }
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            Timer timer = new Timer(id, dueAt);
+            queue.put(timer);
+            armed.incrementAndGet();
+            return timer;
+        });
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Timer timer;
+            try {
+                timer = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Re-armed or cancelled after this timer was taken
+            if (!timers.remove(timer.orderId, timer)) {
+                continue;
+            }
+            long lateness = Math.max(0, System.currentTimeMillis() - timer.dueAtMillis);
+            fired.incrementAndGet();
+            totalLatenessMillis.addAndGet(lateness);
+            maxLatenessMillis.accumulateAndGet(lateness, Math::max);
+            try {
+                schedulingRuntime.runExclusive(() -> complete(timer.orderId));
+            } catch (RuntimeException e) {
+                log.error("Completion timer for order {} failed: {}", timer.orderId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void complete(Long orderId) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || order.getStatus() != Order.OrderStatus.IN_PROGRESS) {
+            return;
+        }
+        Barista barista = order.getBarista();
+        priorityQueueService.autoCompleteOrder(order);
+
+        // Refill the freed barista's work slots right away instead of on the next tick
+        if (barista == null) {
+            return;
+        }
+        for (int slot = 0; slot < workSlots.slotsOf(barista)
+                && barista.getStatus() == Barista.BaristaStatus.AVAILABLE; slot++) {
+            if (priorityQueueService.assignNextOrder(barista.getId()).isEmpty()) {
+                break;
+            }
+            reassigned.incrementAndGet();
+        }
+    }
+
+    private static final class Timer implements Delayed {
+        final Long orderId;
+        final long dueAtMillis;
+
+        Timer(Long orderId, long dueAtMillis) {
+            this.orderId = orderId;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Timer) other).dueAtMillis);
+        }
+    }
+
+    public record TimerStats(
+            Mode mode,
+            int armedTimers,
+            long totalArmed,
+            long fired,
+            long cancelled,
+            long reassigned,
+            double avgLatenessMillis,
+            long maxLatenessMillis) {
+    }
+}
@@ -0,0 +1,332 @@
+package com.beanbrewcafe.barista.scheduler;
+
+import com.beanbrewcafe.barista.jfr.PriorityRecalculationEvent;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.BaristaRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.service.PrepTimeEstimator;
+import com.beanbrewcafe.barista.service.PriorityQueueService;
+import com.beanbrewcafe.barista.service.WorkSlots;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scheduling Runtime
+ * Single tick-driven pipeline for all periodic queue work
+ *
+ * Each tick loads the queue once (pending orders, in-progress orders, baristas)
+ * and runs the configured stages over those entities in one transaction:
+ * - RESCORE:  recalculate priority scores with Order.calculatePriorityScore (estimated prep)
+ * - ESCALATE: flag orders waiting at least the emergency threshold
+ * - ASSIGN:   fill each available barista's free work slots (PriorityQueueService rules)
+ * - COMPLETE: finish in-progress orders whose prep time has elapsed since assignment
+ *             (only with scheduler.completion=TICK; TIMER uses CompletionTimers, MANUAL neither)
+ *
+ * Ticks run on a dedicated executor. A tick that is still running when the next
+ * one is due causes that one to be skipped (and counted) rather than queued, so
+ * a slow pass can never stack up work behind it. Other background queue writers
+ * (CompletionTimers) go through runExclusive, so they never interleave with a
+ * tick that has the same orders and baristas loaded in its own transaction. With scheduler.enabled=false no
+ * ticks are scheduled, but POST /api/scheduler/tick still runs one on demand.
+ */
+@Component
+@Slf4j
+public class SchedulingRuntime {
+
+    public enum Stage { RESCORE, ESCALATE, ASSIGN, COMPLETE }
+
+    private static final int EMERGENCY_THRESHOLD = 8; // minutes
+
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final PriorityQueueService priorityQueueService;
+    private final WorkSlots workSlots;
+    private final PrepTimeEstimator prepTimeEstimator;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Stage> stages;
+    private final boolean enabled;
+    private final long tickIntervalMillis;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final AtomicBoolean tickRunning = new AtomicBoolean();
+    // Held for the whole transaction of a tick or a runExclusive job
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private final AtomicLong failedTicks = new AtomicLong();
+    private final Map<Stage, StageTimer> timers = new EnumMap<>(Stage.class);
+    private volatile long lastTickMillis;
+    private volatile LocalDateTime lastTickAt;
+
+    public SchedulingRuntime(OrderRepository orderRepository,
+            BaristaRepository baristaRepository,
+            PriorityQueueService priorityQueueService,
+            WorkSlots workSlots,
+            PrepTimeEstimator prepTimeEstimator,
+            PlatformTransactionManager transactionManager,
+            @Value("${scheduler.completion:TIMER}") CompletionTimers.Mode completionMode,
+            @Value("${scheduler.enabled:true}") boolean enabled,
+            @Value("${scheduler.stages:RESCORE,ESCALATE,ASSIGN,COMPLETE}") List<Stage> stages,
+            @Value("${scheduler.tick-interval:10000}") long tickIntervalMillis,
+            @Value("${scheduler.pool-size:2}") int poolSize) {
+        this.orderRepository = orderRepository;
+        this.baristaRepository = baristaRepository;
+        this.priorityQueueService = priorityQueueService;
+        this.workSlots = workSlots;
+        this.prepTimeEstimator = prepTimeEstimator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Only TICK completes on the tick: timers finish orders themselves (polling too would
+        // double-complete) and MANUAL leaves completion to the baristas
+        this.stages = completionMode != CompletionTimers.Mode.TICK
+                ? stages.stream().filter(stage -> stage != Stage.COMPLETE).toList()
+                : List.copyOf(stages);
+        this.enabled = enabled;
+        this.tickIntervalMillis = tickIntervalMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(poolSize, 1), runnable -> {
+            Thread thread = new Thread(runnable, "scheduling-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new StageTimer());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Scheduling runtime disabled (scheduler.enabled=false); ticks run only on demand");
+            return;
+        }
+        // The timer only hands ticks to the pool, so a long tick never delays the clock
+        executor.scheduleAtFixedRate(() -> executor.execute(this::tick),
+                tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Scheduling runtime started: stages {} every {} ms", stages, tickIntervalMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run one tick now unless one is already running
+     *
+     * @return false if the tick was skipped because another is in progress
+     */
+    public boolean tick() {
+        if (!tickRunning.compareAndSet(false, true)) {
+            skippedTicks.incrementAndGet();
+            log.warn("Skipped scheduling tick: previous tick still running");
+            return false;
+        }
+        long started = System.nanoTime();
+        queueLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> runStages());
+            ticks.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedTicks.incrementAndGet();
+            log.error("Scheduling tick failed: {}", e.getMessage(), e);
+        } finally {
+            queueLock.unlock();
+            lastTickMillis = (System.nanoTime() - started) / 1_000_000;
+            lastTickAt = LocalDateTime.now();
+            tickRunning.set(false);
+        }
+        return true;
+    }
+
+    /**
+     * Run queue work in its own transaction, never at the same time as a tick or
+     * another runExclusive job; waits for a running tick to finish
+     */
+    public void runExclusive(Runnable work) {
+        queueLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    public RuntimeStats getStats() {
+        Map<Stage, StageStats> stageStats = new LinkedHashMap<>();
+        for (Stage stage : stages) {
+            stageStats.put(stage, timers.get(stage).snapshot());
+        }
+        return new RuntimeStats(enabled, stages, tickIntervalMillis, executor.getCorePoolSize(), tickRunning.get(),
+                ticks.get(), skippedTicks.get(), failedTicks.get(), lastTickMillis, lastTickAt, stageStats);
+    }
+
+    private void runStages() {
+        TickState state = new TickState(
+                orderRepository.findByStatus(Order.OrderStatus.PENDING),
+                orderRepository.findByStatus(Order.OrderStatus.IN_PROGRESS),
+                baristaRepository.findAll());
+        int scanned = state.pending.size();
+
+        for (Stage stage : stages) {
+            long started = System.nanoTime();
+            switch (stage) {
+                case RESCORE -> rescore(state);
+                case ESCALATE -> escalate(state);
+                case ASSIGN -> assign(state);
+                case COMPLETE -> complete(state);
+            }
+            timers.get(stage).record(System.nanoTime() - started);
+        }
+
+        if (state.recalculationEvent.shouldCommit()) {
+            state.recalculationEvent.source = "SchedulingRuntime";
+            state.recalculationEvent.ordersScanned = scanned;
+            state.recalculationEvent.commit();
+        }
+    }
+
+    private void rescore(TickState state) {
+        for (Order order : state.pending) {
+            boolean wasEmergency = order.isEmergencyFlag();
+            BigDecimal oldScore = order.getPriorityScore();
+            BigDecimal newScore = order.calculatePriorityScore(prepTimeEstimator.estimate(order));
+            if (oldScore == null || oldScore.compareTo(newScore) != 0) {
+                state.recalculationEvent.scoresChanged++;
+            }
+            if (!wasEmergency && order.isEmergencyFlag()) {
+                state.recalculationEvent.escalations++;
+            }
+        }
+    }
+
+    private void escalate(TickState state) {
+        for (Order order : state.pending) {
+            if (!order.isEmergencyFlag() && order.getCurrentWaitMinutes() >= EMERGENCY_THRESHOLD) {
+                order.setEmergencyFlag(true);
+                state.recalculationEvent.escalations++;
+                log.warn("Order {} flagged as EMERGENCY (wait time: {} min)",
+                        order.getOrderNumber(), order.getCurrentWaitMinutes());
+            }
+        }
+    }
+
+    private void assign(TickState state) {
+        // Same ordering as findPendingOrdersByPriority, after this tick's rescoring
+        List<Order> queue = new ArrayList<>(state.pending);
+        queue.sort(Comparator.comparing(Order::getPriorityScore).reversed()
+                .thenComparing(Order::getOrderTime));
+
+        double avgWorkload = state.baristas.stream()
+                .filter(barista -> barista.getStatus() != Barista.BaristaStatus.OFFLINE)
+                .mapToDouble(workSlots::effectiveWorkload)
+                .average()
+                .orElse(0.0);
+
+        for (Barista barista : state.baristas) {
+            // Fill every free work slot; the barista turns BUSY once all are taken
+            for (int slot = 0; slot < workSlots.slotsOf(barista); slot++) {
+                if (queue.isEmpty() || barista.getStatus() != Barista.BaristaStatus.AVAILABLE
+                        || priorityQueueService.assignTo(barista, queue, avgWorkload).isEmpty()) {
+                    break;
+                }
+                // A batch moves several orders at once
+                for (Order order : state.pending) {
+                    if (order.getStatus() == Order.OrderStatus.IN_PROGRESS) {
+                        state.inProgress.add(order);
+                    }
+                }
+                state.pending.removeIf(order -> order.getStatus() == Order.OrderStatus.IN_PROGRESS);
+            }
+        }
+    }
+
+    private void complete(TickState state) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> finished = new ArrayList<>();
+        for (Order order : state.inProgress) {
+            LocalDateTime started = order.getAssignedTime() != null ? order.getAssignedTime() : order.getOrderTime();
+            if (started.plusMinutes(order.getEstimatedPrepTime()).isAfter(now)) {
+                continue;
+            }
+            priorityQueueService.autoCompleteOrder(order);
+            finished.add(order);
+        }
+        state.inProgress.removeAll(finished);
+    }
+
+    /**
+     * Entities loaded once per tick and shared by every stage
+     */
+    private static final class TickState {
+        final List<Order> pending;
+        final List<Order> inProgress;
+        final List<Barista> baristas;
+        final PriorityRecalculationEvent recalculationEvent = new PriorityRecalculationEvent();
+
+        TickState(List<Order> pending, List<Order> inProgress, List<Barista> baristas) {
+            this.pending = new ArrayList<>(pending);
+            this.inProgress = new ArrayList<>(inProgress);
+            this.baristas = baristas;
+            recalculationEvent.begin();
+        }
+    }
+
+    private static final class StageTimer {
+        private long runs;
+        private long totalNanos;
+        private long lastNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            runs++;
+            totalNanos += nanos;
+            lastNanos = nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized StageStats snapshot() {
+            return new StageStats(runs, runs == 0 ? 0.0 : totalNanos / 1_000_000.0 / runs,
+                    lastNanos / 1_000_000.0, maxNanos / 1_000_000.0);
+        }
+    }
+
+    public record StageStats(long runs, double avgMillis, double lastMillis, double maxMillis) {
+    }
+
+    public record RuntimeStats(
+            boolean enabled,
+            List<Stage> stages,
+            long tickIntervalMillis,
+            int poolSize,
+            boolean tickRunning,
+            long ticks,
+            long skippedTicks,
+            long failedTicks,
+            long lastTickMillis,
+            LocalDateTime lastTickAt,
+            Map<Stage, StageStats> stageStats) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+/**
+ * A barista as a scheduling policy sees it
+ *
+ * @param workloadMinutes minutes of assigned work not yet finished
+ * @param freeInMinutes   minutes until they can start something new (0 if free now)
+ */
+public record BaristaState(Long id, String name, int workloadMinutes, double freeInMinutes) {
+}
@@ -0,0 +1,48 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import com.beanbrewcafe.barista.model.Customer;
+import com.beanbrewcafe.barista.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending order as a scheduling policy sees it
+ *
+ * @param waitMinutes  minutes since the order was placed, at decision time
+ * @param prepMinutes  expected preparation minutes
+ */
+public record CandidateOrder(
+        Long id,
+        String orderNumber,
+        LocalDateTime orderTime,
+        int waitMinutes,
+        int prepMinutes,
+        double priorityScore,
+        boolean emergency,
+        int skippedCount,
+        Customer.LoyaltyStatus loyaltyStatus,
+        Long drinkId,
+        int quantity) {
+
+    public static CandidateOrder of(Order order) {
+        return of(order, order.getEstimatedPrepTime());
+    }
+
+    /**
+     * @param prepMinutes prep-time estimate to plan with instead of the order's own
+     */
+    public static CandidateOrder of(Order order, int prepMinutes) {
+        return new CandidateOrder(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getOrderTime(),
+                order.getCurrentWaitMinutes(),
+                prepMinutes,
+                order.getPriorityScore() != null ? order.getPriorityScore().doubleValue() : 0.0,
+                order.isEmergencyFlag(),
+                order.getSkippedCount() != null ? order.getSkippedCount() : 0,
+                order.getCustomer() != null ? order.getCustomer().getLoyaltyStatus() : null,
+                order.getDrink().getId(),
+                order.getQuantity());
+    }
+}
@@ -0,0 +1,262 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import com.beanbrewcafe.barista.model.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * EDF Policy
+ * Earliest-deadline-first with SLA feasibility, maximizing on-time orders
+ *
+ * Every order's deadline is orderTime + sla-minutes, moved by its loyalty tier's
+ * offset (negative = sooner). Planning the first max-orders pending orders:
+ * 1. OVERDUE: orders already late by more than starvation-minutes go first,
+ *    oldest deadline first, so a sustained overload can't defer them forever
+ * 2. HOPELESS: orders that would miss their deadline even if the first free
+ *    barista started them now are set aside
+ * 3. The rest are taken in deadline order (Moore-Hodgson): whenever adding an
+ *    order makes some accepted order late, the longest accepted order is
+ *    deferred, which keeps the number of on-time orders as high as possible
+ * 4. Deferred and hopeless orders follow, in deadline order
+ * The plan puts each order on whichever barista frees up first; the deciding
+ * barista, who is free now, takes the first order of the plan.
+ *
+ * Selected with scheduler.policy=edf. SlaFeasibilityService uses the same plan
+ * to check the live queue.
+ */
+@Component
+@Slf4j
+public class EdfPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "edf";
+
+    private final int slaMinutes;
+    private final int regularOffsetMinutes;
+    private final int goldOffsetMinutes;
+    private final int maxOrders;
+    private final int starvationMinutes;
+
+    public EdfPolicy(@Value("${scheduler.edf.sla-minutes:10}") int slaMinutes,
+            @Value("${scheduler.edf.regular-offset-minutes:0}") int regularOffsetMinutes,
+            @Value("${scheduler.edf.gold-offset-minutes:-2}") int goldOffsetMinutes,
+            @Value("${scheduler.edf.max-orders:40}") int maxOrders,
+            @Value("${scheduler.edf.starvation-minutes:10}") int starvationMinutes) {
+        this.slaMinutes = slaMinutes;
+        this.regularOffsetMinutes = regularOffsetMinutes;
+        this.goldOffsetMinutes = goldOffsetMinutes;
+        this.maxOrders = Math.max(maxOrders, 1);
+        this.starvationMinutes = Math.max(starvationMinutes, 0);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean usesOtherBaristas() {
+        return true;
+    }
+
+    /**
+     * Earlier deadline ranks higher
+     */
+    @Override
+    public double priority(CandidateOrder order) {
+        return -deadline(order).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * orderTime + SLA, adjusted by loyalty tier
+     */
+    public LocalDateTime deadline(CandidateOrder order) {
+        int offset = order.loyaltyStatus() == Customer.LoyaltyStatus.GOLD ? goldOffsetMinutes
+                : order.loyaltyStatus() == Customer.LoyaltyStatus.REGULAR ? regularOffsetMinutes
+                : 0;
+        return order.orderTime().plusMinutes(slaMinutes + offset);
+    }
+
+    @Override
+    public PolicyDecision select(SchedulingContext context) {
+        List<CandidateOrder> candidates = context.candidates();
+        List<CandidateOrder> window = candidates.subList(0, Math.min(candidates.size(), maxOrders));
+        Plan plan = plan(context.now(), window, context.freeAtMinutes());
+
+        PlannedOrder first = plan.orders().get(0);
+        String rule = first.outcome() == Outcome.OVERDUE ? "EDF_OVERDUE"
+                : first.outcome() == Outcome.ON_TIME ? "EDF"
+                : "EDF_BEST_EFFORT";
+        if (!context.simulated() && first.order() != window.get(0)) {
+            log.debug("EDF picked order {} for barista {} ahead of earliest deadline {} ({} of {} on time)",
+                    first.order().orderNumber(), context.barista().name(), window.get(0).orderNumber(),
+                    plan.onTimeCount(), plan.orders().size());
+        }
+        return new PolicyDecision(first.order(), rule);
+    }
+
+    /**
+     * Build the EDF plan for {@code orders}
+     *
+     * @param freeAt minutes from now until each barista can start something new (at least one)
+     */
+    public Plan plan(LocalDateTime now, List<CandidateOrder> orders, double[] freeAt) {
+        double earliestFree = earliest(freeAt);
+        List<Job> overdue = new ArrayList<>();
+        List<Job> hopeless = new ArrayList<>();
+        List<Job> open = new ArrayList<>();
+        for (CandidateOrder order : orders) {
+            Job job = new Job(order, minutesUntil(now, deadline(order)));
+            if (job.deadline < -starvationMinutes) {
+                overdue.add(job);
+            } else if (earliestFree + order.prepMinutes() > job.deadline) {
+                hopeless.add(job);
+            } else {
+                open.add(job);
+            }
+        }
+        Comparator<Job> byDeadline = Comparator.comparingDouble(Job::deadline);
+        overdue.sort(byDeadline);
+        hopeless.sort(byDeadline);
+        open.sort(byDeadline);
+
+        // Moore-Hodgson over the open orders, after the overdue ones
+        List<Job> accepted = new ArrayList<>();
+        List<Job> deferred = new ArrayList<>();
+        for (Job job : open) {
+            accepted.add(job);
+            while (anyLate(overdue, accepted, freeAt)) {
+                Job longest = accepted.stream()
+                        .max(Comparator.comparingInt((Job candidate) -> candidate.order.prepMinutes()))
+                        .orElseThrow();
+                accepted.remove(longest);
+                deferred.add(longest);
+            }
+        }
+        deferred.addAll(hopeless);
+        deferred.sort(byDeadline);
+
+        List<Job> sequence = new ArrayList<>(orders.size());
+        sequence.addAll(overdue);
+        sequence.addAll(accepted);
+        sequence.addAll(deferred);
+
+        List<PlannedOrder> planned = project(now, sequence, freeAt, earliestFree);
+        List<PlannedOrder> labelled = new ArrayList<>(planned.size());
+        for (int i = 0; i < planned.size(); i++) {
+            PlannedOrder order = planned.get(i);
+            Outcome outcome = i < overdue.size() ? Outcome.OVERDUE
+                    : order.outcome() == Outcome.HOPELESS ? Outcome.HOPELESS
+                    : order.onTime() ? Outcome.ON_TIME
+                    : Outcome.DEFERRED;
+            labelled.add(new PlannedOrder(order.order(), order.deadline(), order.startInMinutes(),
+                    order.readyInMinutes(), order.onTime(), outcome));
+        }
+        return new Plan(labelled);
+    }
+
+    /**
+     * Project an existing sequence (such as the live priority order) without reordering it
+     */
+    public Plan evaluate(LocalDateTime now, List<CandidateOrder> sequence, double[] freeAt) {
+        List<Job> jobs = sequence.stream()
+                .map(order -> new Job(order, minutesUntil(now, deadline(order))))
+                .toList();
+        return new Plan(project(now, jobs, freeAt, earliest(freeAt)));
+    }
+
+    /**
+     * List-schedule the sequence (each order on the barista who frees up first,
+     * index 0 winning ties) and label on-time, late and hopeless orders
+     */
+    private List<PlannedOrder> project(LocalDateTime now, List<Job> sequence, double[] baristaFreeAt,
+            double earliestFree) {
+        double[] freeAt = baristaFreeAt.clone();
+        List<PlannedOrder> planned = new ArrayList<>(sequence.size());
+        for (Job job : sequence) {
+            int barista = firstFree(freeAt);
+            double start = freeAt[barista];
+            double ready = start + job.order.prepMinutes();
+            freeAt[barista] = ready;
+            boolean onTime = ready <= job.deadline;
+            Outcome outcome = onTime ? Outcome.ON_TIME
+                    : earliestFree + job.order.prepMinutes() > job.deadline ? Outcome.HOPELESS
+                    : Outcome.LATE;
+            planned.add(new PlannedOrder(job.order, now.plusSeconds(Math.round(job.deadline * 60)),
+                    start, ready, onTime, outcome));
+        }
+        return planned;
+    }
+
+    private static boolean anyLate(List<Job> first, List<Job> then, double[] baristaFreeAt) {
+        double[] freeAt = baristaFreeAt.clone();
+        for (Job job : first) {
+            int barista = firstFree(freeAt);
+            freeAt[barista] += job.order.prepMinutes();
+        }
+        for (Job job : then) {
+            int barista = firstFree(freeAt);
+            freeAt[barista] += job.order.prepMinutes();
+            if (freeAt[barista] > job.deadline) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int firstFree(double[] freeAt) {
+        int barista = 0;
+        for (int b = 1; b < freeAt.length; b++) {
+            if (freeAt[b] < freeAt[barista]) {
+                barista = b;
+            }
+        }
+        return barista;
+    }
+
+    private static double earliest(double[] freeAt) {
+        return freeAt[firstFree(freeAt)];
+    }
+
+    private static double minutesUntil(LocalDateTime now, LocalDateTime time) {
+        return Duration.between(now, time).toMillis() / 60_000.0;
+    }
+
+    private record Job(CandidateOrder order, double deadline) {
+    }
+
+    /**
+     * ON_TIME: ready by its deadline; LATE: misses it in an evaluated sequence
+     * but could have made it; DEFERRED: given up by EDF so others make theirs;
+     * HOPELESS: misses it even if the first free barista started it now;
+     * OVERDUE: past it by more than starvation-minutes and served first
+     */
+    public enum Outcome { ON_TIME, LATE, DEFERRED, HOPELESS, OVERDUE }
+
+    public record PlannedOrder(
+            CandidateOrder order,
+            LocalDateTime deadline,
+            double startInMinutes,
+            double readyInMinutes,
+            boolean onTime,
+            Outcome outcome) {
+    }
+
+    public record Plan(List<PlannedOrder> orders) {
+
+        public long onTimeCount() {
+            return orders.stream().filter(PlannedOrder::onTime).count();
+        }
+
+        public long countOf(Outcome outcome) {
+            return orders.stream().filter(order -> order.outcome() == outcome).count();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Greedy Policy (default)
+ * The original workload-balancing rule chain
+ *
+ * STRATEGY:
+ * - Emergency orders always get highest priority
+ * - Overloaded baristas (>1.2x avg) prefer quick orders
+ * - Underutilized baristas (<0.8x avg) can take complex orders
+ * - Otherwise, assign highest priority order
+ */
+@Component
+@Slf4j
+public class GreedyPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "greedy";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public PolicyDecision select(SchedulingContext context) {
+        BaristaState barista = context.barista();
+        double workloadRatio = barista.workloadMinutes() / Math.max(context.averageWorkload(), 1.0);
+
+        // RULE 1: Emergency orders get top priority regardless of workload
+        for (CandidateOrder order : context.candidates()) {
+            if (order.emergency()) {
+                return new PolicyDecision(order, "EMERGENCY");
+            }
+        }
+
+        // RULE 2: If barista is overloaded (>1.2x average), prefer quick orders
+        if (workloadRatio > 1.2) {
+            if (!context.simulated()) {
+                log.debug("Barista {} is overloaded ({}x), looking for quick orders",
+                        barista.name(), String.format("%.2f", workloadRatio));
+            }
+
+            for (CandidateOrder order : context.candidates()) {
+                if (order.prepMinutes() <= 2) { // Quick orders (1-2 min)
+                    return new PolicyDecision(order, "OVERLOADED_QUICK");
+                }
+            }
+        }
+
+        // RULE 3: If barista is underutilized (<0.8x average), can take complex orders
+        if (workloadRatio < 0.8 && !context.simulated()) {
+            log.debug("Barista {} is underutilized ({}x), can take complex orders",
+                    barista.name(), String.format("%.2f", workloadRatio));
+        }
+
+        // RULE 4: Default - return highest priority order
+        return new PolicyDecision(context.candidates().get(0), "DEFAULT");
+    }
+}
@@ -0,0 +1,192 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import com.beanbrewcafe.barista.model.PriorityFormula;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lookahead Policy
+ * Picks the next order by planning the whole horizon instead of one step
+ *
+ * The first max-orders pending orders are sequenced onto every active barista
+ * (each taking the next order when they free up, by current workload) over the
+ * next horizon-minutes. A plan costs:
+ *   timeout-weight x (orders whose order-to-ready time exceeds 10 minutes)
+ *   + sum of priority-weighted waits
+ * Starting from priority order, local search (pairwise swaps and relocations)
+ * keeps any move that lowers the cost until no move helps or the per-decision
+ * time budget runs out. The deciding barista, who is free now, takes the first
+ * order of the best plan.
+ *
+ * Selected with scheduler.policy=lookahead.
+ */
+@Component
+@Slf4j
+public class LookaheadPolicy implements SchedulingPolicy {
+
+    public static final String NAME = "lookahead";
+
+    private final int horizonMinutes;
+    private final int maxOrders;
+    private final long budgetNanos;
+    private final double timeoutWeight;
+
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong differentFromTopPriority = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong totalSearchNanos = new AtomicLong();
+
+    public LookaheadPolicy(@Value("${scheduler.lookahead.horizon-minutes:15}") int horizonMinutes,
+            @Value("${scheduler.lookahead.max-orders:12}") int maxOrders,
+            @Value("${scheduler.lookahead.budget-millis:20}") long budgetMillis,
+            @Value("${scheduler.lookahead.timeout-weight:100}") double timeoutWeight) {
+        this.horizonMinutes = horizonMinutes;
+        this.maxOrders = Math.max(maxOrders, 1);
+        this.budgetNanos = Duration.ofMillis(budgetMillis).toNanos();
+        this.timeoutWeight = timeoutWeight;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean usesOtherBaristas() {
+        return true;
+    }
+
+    @Override
+    public PolicyDecision select(SchedulingContext context) {
+        long started = System.nanoTime();
+        long deadline = started + budgetNanos;
+
+        List<CandidateOrder> candidates = context.candidates();
+        List<CandidateOrder> window = candidates.subList(0, Math.min(candidates.size(), maxOrders));
+        Job[] jobs = new Job[window.size()];
+        for (int i = 0; i < jobs.length; i++) {
+            CandidateOrder order = window.get(i);
+            double age = Duration.between(order.orderTime(), context.now()).toMillis() / 60_000.0;
+            double weight = 1.0 + order.priorityScore() / 100.0;
+            jobs[i] = new Job(Math.max(age, 0.0), order.prepMinutes(), weight);
+        }
+        double[] freeAt = context.freeAtMinutes();
+
+        List<Integer> best = new ArrayList<>(jobs.length);
+        for (int i = 0; i < jobs.length; i++) {
+            best.add(i);
+        }
+        double bestCost = cost(best, jobs, freeAt);
+        long evaluated = 1;
+        boolean outOfTime = false;
+
+        boolean improved = true;
+        search:
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < best.size() - 1; i++) {
+                for (int j = i + 1; j < best.size(); j++) {
+                    if (System.nanoTime() > deadline) {
+                        outOfTime = true;
+                        break search;
+                    }
+                    // Swap i and j
+                    List<Integer> swapped = new ArrayList<>(best);
+                    Collections.swap(swapped, i, j);
+                    double swappedCost = cost(swapped, jobs, freeAt);
+                    // Move j in front of i
+                    List<Integer> moved = new ArrayList<>(best);
+                    moved.add(i, moved.remove(j));
+                    double movedCost = cost(moved, jobs, freeAt);
+                    evaluated += 2;
+
+                    if (swappedCost < bestCost || movedCost < bestCost) {
+                        boolean takeSwap = swappedCost <= movedCost;
+                        best = takeSwap ? swapped : moved;
+                        bestCost = takeSwap ? swappedCost : movedCost;
+                        improved = true;
+                    }
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        CandidateOrder chosen = window.get(best.get(0));
+        if (context.simulated()) {
+            return new PolicyDecision(chosen, "LOOKAHEAD");
+        }
+
+        decisions.incrementAndGet();
+        evaluations.addAndGet(evaluated);
+        totalSearchNanos.addAndGet(elapsed);
+        if (outOfTime) {
+            budgetExhausted.incrementAndGet();
+        }
+        if (best.get(0) != 0) {
+            differentFromTopPriority.incrementAndGet();
+        }
+
+        log.debug("Lookahead picked order {} for barista {} (cost {}, {} plans in {} us)",
+                chosen.orderNumber(), context.barista().name(), String.format("%.1f", bestCost),
+                evaluated, elapsed / 1_000);
+        return new PolicyDecision(chosen, "LOOKAHEAD");
+    }
+
+    public LookaheadStats getStats() {
+        long count = decisions.get();
+        return new LookaheadStats(horizonMinutes, maxOrders, budgetNanos / 1_000_000,
+                count, differentFromTopPriority.get(), budgetExhausted.get(),
+                count == 0 ? 0.0 : (double) evaluations.get() / count,
+                count == 0 ? 0.0 : totalSearchNanos.get() / 1_000_000.0 / count);
+    }
+
+    /**
+     * Simulate a sequence: each order goes to whichever barista frees up first.
+     * The deciding barista is index 0 and wins ties, so they take the first order.
+     */
+    private double cost(List<Integer> sequence, Job[] jobs, double[] baristaFreeAt) {
+        double[] freeAt = baristaFreeAt.clone();
+        double cost = 0.0;
+        for (int index : sequence) {
+            Job job = jobs[index];
+            int barista = 0;
+            for (int b = 1; b < freeAt.length; b++) {
+                if (freeAt[b] < freeAt[barista]) {
+                    barista = b;
+                }
+            }
+            double start = Math.min(freeAt[barista], horizonMinutes);
+            double wait = job.age + start;
+            cost += job.weight * wait;
+            if (wait + job.prepMinutes > PriorityFormula.MAX_WAIT_MINUTES) {
+                cost += timeoutWeight;
+            }
+            if (freeAt[barista] <= horizonMinutes) {
+                freeAt[barista] += job.prepMinutes;
+            }
+        }
+        return cost;
+    }
+
+    private record Job(double age, int prepMinutes, double weight) {
+    }
+
+    public record LookaheadStats(
+            int horizonMinutes,
+            int maxOrders,
+            long budgetMillis,
+            long decisions,
+            long differentFromTopPriority,
+            long budgetExhausted,
+            double avgPlansEvaluated,
+            double avgSearchMillis) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+/**
+ * The order a policy chose and the rule that chose it (reported in JFR and logs)
+ */
+public record PolicyDecision(CandidateOrder order, String rule) {
+}
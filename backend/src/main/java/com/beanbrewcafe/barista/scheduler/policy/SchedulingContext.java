@@ -0,0 +1,34 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything a policy may look at for one decision
+ *
+ * @param barista        the barista who is free now and needs an order
+ * @param otherBaristas  the other active baristas (empty unless the policy uses them)
+ * @param candidates     pending orders ranked by {@link SchedulingPolicy#priority}, highest first
+ * @param simulated      true during trace replay (policies should not record live statistics)
+ */
+public record SchedulingContext(
+        LocalDateTime now,
+        BaristaState barista,
+        List<BaristaState> otherBaristas,
+        double averageWorkload,
+        List<CandidateOrder> candidates,
+        boolean simulated) {
+
+    /**
+     * Minutes from now until each active barista can start something new.
+     * Index 0 is the deciding barista, who is free now by definition; the
+     * others follow in {@link #otherBaristas} order.
+     */
+    public double[] freeAtMinutes() {
+        double[] freeAt = new double[otherBaristas.size() + 1];
+        for (int i = 0; i < otherBaristas.size(); i++) {
+            freeAt[i + 1] = otherBaristas.get(i).freeInMinutes();
+        }
+        return freeAt;
+    }
+}
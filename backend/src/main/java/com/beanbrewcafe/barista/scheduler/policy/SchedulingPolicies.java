@@ -0,0 +1,44 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of every SchedulingPolicy bean, by name, and the one selected by
+ * scheduler.policy for live assignment
+ */
+@Component
+@Slf4j
+public class SchedulingPolicies {
+
+    private final Map<String, SchedulingPolicy> policies = new LinkedHashMap<>();
+    private final SchedulingPolicy active;
+
+    public SchedulingPolicies(List<SchedulingPolicy> policies,
+            @Value("${scheduler.policy:greedy}") String activePolicy) {
+        for (SchedulingPolicy policy : policies) {
+            this.policies.put(policy.name().toLowerCase(), policy);
+        }
+        this.active = get(activePolicy).orElseThrow(() -> new IllegalArgumentException(
+                "Unknown scheduler.policy '" + activePolicy + "', expected one of " + this.policies.keySet()));
+        log.info("Scheduling policy: {} (available: {})", active.name(), this.policies.keySet());
+    }
+
+    public SchedulingPolicy active() {
+        return active;
+    }
+
+    public Optional<SchedulingPolicy> get(String name) {
+        return Optional.ofNullable(name != null ? policies.get(name.trim().toLowerCase()) : null);
+    }
+
+    public List<String> names() {
+        return List.copyOf(policies.keySet());
+    }
+}
@@ -0,0 +1,42 @@
+package com.beanbrewcafe.barista.scheduler.policy;
+
+/**
+ * Scheduling Policy SPI
+ * Decides which pending order a barista who has just become free starts next
+ *
+ * Policies see plain views of the queue (SchedulingContext) rather than JPA
+ * entities, so the same implementation runs live in PriorityQueueService and
+ * offline in TraceReplayService at simulated times. Implementations must be
+ * thread-safe: replay runs several policies in parallel.
+ *
+ * Register an implementation as a Spring bean and select it with
+ * scheduler.policy set to its name().
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Name used by scheduler.policy and in replay reports
+     */
+    String name();
+
+    /**
+     * Pick one of {@code context.candidates()} (never empty)
+     */
+    PolicyDecision select(SchedulingContext context);
+
+    /**
+     * Ranking used to order candidates before {@link #select}; defaults to the
+     * canonical priority score (PriorityFormula)
+     */
+    default double priority(CandidateOrder order) {
+        return order.priorityScore();
+    }
+
+    /**
+     * Whether {@link #select} needs the other baristas' availability; when false
+     * the live path skips loading them
+     */
+    default boolean usesOtherBaristas() {
+        return false;
+    }
+}
@@ -0,0 +1,203 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.util.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission Control Service
+ * Decides whether a new order may join the queue, before anything is written
+ *
+ * RULES (in order):
+ * 1. Per-channel token bucket (X-Order-Channel header), or per client address for
+ *    requests without a channel (such as the shop's own UI): RATE_LIMITED when empty
+ * 2. Projected wait = (active barista backlog + pending prep minutes + async intake
+ *    backlog) / active work slots + this order's prep time, from QueuePositionIndex
+ * 3. projected <= max-wait          -> ADMIT
+ *    projected <= quote-limit        -> QUOTE, unless the client already accepted
+ *                                       at least that wait (X-Accept-Wait-Minutes)
+ *    projected <= shed-limit         -> DEFER with Retry-After
+ *    otherwise, or nobody on duty    -> REJECT
+ *
+ * Everything is in memory, so a refused order costs no database work.
+ */
+@Service
+@Slf4j
+public class AdmissionControlService {
+
+    public static final String DEFAULT_CHANNEL = "default";
+    private static final String OVERFLOW_CHANNEL = "other";
+    private static final int MAX_CHANNELS = 256;
+    private static final int MAX_CLIENTS = 10_000;
+    private static final long MAX_RETRY_AFTER_SECONDS = 600;
+
+    public enum Outcome { ADMIT, QUOTE, DEFER, REJECT, RATE_LIMITED }
+
+    private final QueuePositionIndex queuePositionIndex;
+    private final DrinkCatalog drinkCatalog;
+    private final OrderIntakeService orderIntakeService;
+    private final boolean enabled;
+    private final int maxWaitMinutes;
+    private final int quoteLimitMinutes;
+    private final int shedLimitMinutes;
+    private final double bucketCapacity;
+    private final double refillPerSecond;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Map<Outcome, AtomicLong> outcomes = new EnumMap<>(Outcome.class);
+
+    public AdmissionControlService(QueuePositionIndex queuePositionIndex,
+            DrinkCatalog drinkCatalog,
+            OrderIntakeService orderIntakeService,
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.max-wait-minutes:10}") int maxWaitMinutes,
+            @Value("${admission.quote-limit-minutes:20}") int quoteLimitMinutes,
+            @Value("${admission.shed-limit-minutes:40}") int shedLimitMinutes,
+            @Value("${admission.rate.capacity:30}") double bucketCapacity,
+            @Value("${admission.rate.refill-per-second:2}") double refillPerSecond) {
+        this.queuePositionIndex = queuePositionIndex;
+        this.drinkCatalog = drinkCatalog;
+        this.orderIntakeService = orderIntakeService;
+        this.enabled = enabled;
+        this.maxWaitMinutes = maxWaitMinutes;
+        this.quoteLimitMinutes = quoteLimitMinutes;
+        this.shedLimitMinutes = shedLimitMinutes;
+        this.bucketCapacity = bucketCapacity;
+        this.refillPerSecond = refillPerSecond;
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    /**
+     * Decide whether an order for {@code quantity} x {@code drinkId} may be placed now
+     *
+     * @param channel           ordering channel (kiosk, app, counter...); null = rate-limit by client
+     * @param clientAddress     remote address, used for requests without a channel
+     * @param acceptedWaitMinutes wait the customer already agreed to after a QUOTE, or null
+     */
+    public AdmissionDecision evaluate(String channel, String clientAddress, Long drinkId, int quantity,
+            Integer acceptedWaitMinutes) {
+        if (!enabled) {
+            return record(new AdmissionDecision(Outcome.ADMIT, null, 0, null));
+        }
+
+        TokenBucket bucket = channel == null || channel.isBlank()
+                ? clientBucketFor(clientAddress)
+                : bucketFor(channel);
+        if (!bucket.tryAcquire()) {
+            return record(new AdmissionDecision(Outcome.RATE_LIMITED, null,
+                    Math.max(bucket.secondsUntilAvailable(), 1), "Too many orders from this channel"));
+        }
+
+        int prepMinutes = drinkCatalog.prepTime(drinkId).orElse(0) * Math.max(quantity, 1);
+        QueuePositionIndex.QueueLoad load = queuePositionIndex.getLoad();
+        // Orders accepted by async intake are not in the index until persisted
+        QueuePositionIndex.QueueLoad withIntake = new QueuePositionIndex.QueueLoad(load.pendingOrders(),
+                load.pendingPrepMinutes() + (long) orderIntakeService.getStats().queued() * prepMinutes,
+                load.backlogMinutes(), load.activeBaristas(), load.activeSlots());
+        OptionalInt projected = withIntake.projectedWaitMinutes(prepMinutes);
+
+        if (projected.isEmpty()) {
+            return record(new AdmissionDecision(Outcome.REJECT, null, 0, "No baristas on duty"));
+        }
+        int wait = projected.getAsInt();
+        if (wait <= maxWaitMinutes) {
+            return record(new AdmissionDecision(Outcome.ADMIT, wait, 0, null));
+        }
+        if (wait <= quoteLimitMinutes) {
+            if (acceptedWaitMinutes != null && acceptedWaitMinutes >= wait) {
+                return record(new AdmissionDecision(Outcome.ADMIT, wait, 0, null));
+            }
+            return record(new AdmissionDecision(Outcome.QUOTE, wait, 0,
+                    "Expected wait is " + wait + " minutes; resubmit with X-Accept-Wait-Minutes to confirm"));
+        }
+        if (wait <= shedLimitMinutes) {
+            // The queue drains by roughly one minute of projected wait per minute
+            long retryAfter = Math.min((long) (wait - maxWaitMinutes) * 60, MAX_RETRY_AFTER_SECONDS);
+            return record(new AdmissionDecision(Outcome.DEFER, wait, retryAfter, "Queue is full, please retry later"));
+        }
+        return record(new AdmissionDecision(Outcome.REJECT, wait, 0, "Queue is full"));
+    }
+
+    public AdmissionStats getStats() {
+        Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+        return new AdmissionStats(enabled, maxWaitMinutes, quoteLimitMinutes, shedLimitMinutes,
+                queuePositionIndex.getLoad(), buckets.size(), clientBuckets.size(), counts);
+    }
+
+    private TokenBucket bucketFor(String channel) {
+        String key = channel.trim().toLowerCase();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Channel names come from a request header; cap them so they cannot grow the map unboundedly
+        if (buckets.size() >= MAX_CHANNELS) {
+            key = OVERFLOW_CHANNEL;
+        }
+        return buckets.computeIfAbsent(key, name -> new TokenBucket(bucketCapacity, refillPerSecond));
+    }
+
+    /**
+     * One bucket per client address, so unlabelled traffic is limited per client
+     * instead of sharing one global bucket
+     */
+    private TokenBucket clientBucketFor(String clientAddress) {
+        if (clientAddress == null || clientAddress.isBlank()) {
+            return buckets.computeIfAbsent(DEFAULT_CHANNEL, name -> new TokenBucket(bucketCapacity, refillPerSecond));
+        }
+        TokenBucket bucket = clientBuckets.get(clientAddress);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= MAX_CLIENTS) {
+            // A refilled bucket behaves exactly like a new one, so it can be dropped
+            clientBuckets.values().removeIf(idle -> idle.availableTokens() >= bucketCapacity);
+            if (clientBuckets.size() >= MAX_CLIENTS) {
+                return buckets.computeIfAbsent(OVERFLOW_CHANNEL, name -> new TokenBucket(bucketCapacity, refillPerSecond));
+            }
+        }
+        return clientBuckets.computeIfAbsent(clientAddress, address -> new TokenBucket(bucketCapacity, refillPerSecond));
+    }
+
+    private AdmissionDecision record(AdmissionDecision decision) {
+        outcomes.get(decision.outcome()).incrementAndGet();
+        if (decision.outcome() != Outcome.ADMIT) {
+            log.debug("Admission {}: projected wait {} min ({})",
+                    decision.outcome(), decision.projectedWaitMinutes(), decision.reason());
+        }
+        return decision;
+    }
+
+    public record AdmissionDecision(
+            Outcome outcome,
+            Integer projectedWaitMinutes,
+            long retryAfterSeconds,
+            String reason) {
+
+        public boolean admitted() {
+            return outcome == Outcome.ADMIT;
+        }
+    }
+
+    public record AdmissionStats(
+            boolean enabled,
+            int maxWaitMinutes,
+            int quoteLimitMinutes,
+            int shedLimitMinutes,
+            QueuePositionIndex.QueueLoad load,
+            int channels,
+            int clients,
+            Map<Outcome, Long> outcomes) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.beanbrewcafe.barista.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard Snapshot Service
+ * Shares one serialized snapshot per dashboard view between all open screens
+ *
+ * Every view is computed at most once per refresh interval. Requests that
+ * arrive while a refresh is running wait for that refresh instead of
+ * starting their own (single-flight), and everyone is served the same
+ * pre-serialized bytes.
+ *
+ * A snapshot keeps the loaded value and lazily encodes it once per requested
+ * format (JSON, Smile or CBOR), so binary clients never trigger a reload.
+ */
+@Service
+@Slf4j
+public class DashboardSnapshotService {
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    public static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, SMILE, CBOR);
+
+    private final Map<MediaType, ObjectMapper> mappers;
+    private final long refreshIntervalMillis;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Snapshot>> inFlight = new ConcurrentHashMap<>();
+    // Bumped by invalidate; a refresh that started under an older generation is not cached
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong computations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public DashboardSnapshotService(ObjectMapper objectMapper,
+            @Value("${dashboard.snapshot.refresh-interval:2000}") long refreshIntervalMillis) {
+        // Binary mappers share the JSON mapper's modules and settings
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                SMILE, objectMapper.copyWith(new SmileFactory()),
+                CBOR, objectMapper.copyWith(new CBORFactory()));
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Pick the best supported snapshot format for an Accept header (JSON by default)
+     */
+    public MediaType negotiate(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(acceptHeader);
+        // Most specific first, then (stable sort) highest quality first
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType format : FORMATS) {
+                if (type.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Get the JSON snapshot for a view
+     */
+    public byte[] getSnapshot(String view, Supplier<?> loader) {
+        return getSnapshot(view, MediaType.APPLICATION_JSON, loader);
+    }
+
+    /**
+     * Get the serialized snapshot for a view in the given format, recomputing it
+     * with the loader only when the cached one is older than the refresh interval
+     */
+    public byte[] getSnapshot(String view, MediaType format, Supplier<?> loader) {
+        Snapshot current = snapshots.get(view);
+        if (current != null && current.isFresh(refreshIntervalMillis)) {
+            hits.incrementAndGet();
+            return encode(view, current, format);
+        }
+
+        CompletableFuture<Snapshot> refresh = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = inFlight.putIfAbsent(view, refresh);
+        if (running != null) {
+            // Another request is already computing this view - share its result
+            coalesced.incrementAndGet();
+            return encode(view, running.join(), format);
+        }
+
+        try {
+            // Re-check: a refresh may have finished between the first read and putIfAbsent
+            current = snapshots.get(view);
+            if (current == null || !current.isFresh(refreshIntervalMillis)) {
+                long generation = generation(view).get();
+                Snapshot computed = compute(view, loader);
+                // Atomic with invalidate's remove: skip the store if the view was invalidated meanwhile
+                snapshots.compute(view, (key, cached) ->
+                        generation(view).get() == generation ? computed : cached);
+                current = computed;
+            }
+            refresh.complete(current);
+            return encode(view, current, format);
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(view, refresh);
+        }
+    }
+
+    /**
+     * Drop the cached snapshot so the next request recomputes it
+     *
+     * A refresh already running for the view still answers its own callers,
+     * but its (possibly stale) result is not cached.
+     */
+    public void invalidate(String view) {
+        generation(view).incrementAndGet();
+        snapshots.remove(view);
+        inFlight.remove(view);
+    }
+
+    public SnapshotStats getStats() {
+        return new SnapshotStats(computations.get(), hits.get(), coalesced.get(), refreshIntervalMillis);
+    }
+
+    private AtomicLong generation(String view) {
+        return generations.computeIfAbsent(view, v -> new AtomicLong());
+    }
+
+    private Snapshot compute(String view, Supplier<?> loader) {
+        long start = System.nanoTime();
+        Object value = loader.get();
+        computations.incrementAndGet();
+        log.debug("Refreshed dashboard snapshot '{}' ({} ms)", view, (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(value, System.currentTimeMillis(), new ConcurrentHashMap<>());
+    }
+
+    private byte[] encode(String view, Snapshot snapshot, MediaType format) {
+        return snapshot.encodings().computeIfAbsent(format, type -> {
+            try {
+                return mappers.get(type).writeValueAsBytes(snapshot.value());
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize dashboard snapshot: " + view, e);
+            }
+        });
+    }
+
+    private record Snapshot(Object value, long computedAt, Map<MediaType, byte[]> encodings) {
+        boolean isFresh(long refreshIntervalMillis) {
+            return System.currentTimeMillis() - computedAt < refreshIntervalMillis;
+        }
+    }
+
+    public record SnapshotStats(long computations, long hits, long coalesced, long refreshIntervalMillis) {
+    }
+}
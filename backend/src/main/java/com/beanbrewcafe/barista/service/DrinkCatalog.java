@@ -0,0 +1,55 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.DrinkChangedEvent;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.repository.DrinkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+
+/**
+ * Drink Catalog
+ * In-memory menu (drink id -> prep minutes) for request-path checks that must not hit the DB
+ *
+ * Loaded at startup and reloaded whenever a drink row changes. A drink row
+ * without a prep time counts as 0 minutes (as in OrderSnapshot) rather than
+ * failing the whole reload.
+ */
+@Service
+@RequiredArgsConstructor
+public class DrinkCatalog {
+
+    private final DrinkRepository drinkRepository;
+
+    private volatile Map<Long, Integer> prepTimes = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        prepTimes = drinkRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Drink::getId,
+                        drink -> drink.getPrepTime() != null ? drink.getPrepTime() : 0));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDrinkChanged(DrinkChangedEvent event) {
+        reload();
+    }
+
+    public boolean exists(Long drinkId) {
+        return drinkId != null && prepTimes.containsKey(drinkId);
+    }
+
+    /**
+     * Prep minutes for one unit of a drink, if it is on the menu
+     */
+    public OptionalInt prepTime(Long drinkId) {
+        Integer prepTime = drinkId != null ? prepTimes.get(drinkId) : null;
+        return prepTime != null ? OptionalInt.of(prepTime) : OptionalInt.empty();
+    }
+}
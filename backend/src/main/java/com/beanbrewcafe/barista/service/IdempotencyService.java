@@ -0,0 +1,154 @@
+package com.beanbrewcafe.barista.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency Service
+ * Bounded, time-expiring cache of Idempotency-Key -> result of the first request
+ *
+ * The first request for a key installs an in-flight future and runs the action;
+ * identical requests arriving meanwhile wait on that future instead of running
+ * it again, and later retries are answered from the cache until the TTL expires.
+ * Only results the caller marks as final are kept - refusals and failures are
+ * dropped so the client can genuinely retry them.
+ *
+ * Entries are evicted in insertion order, which is also expiry order because
+ * every entry gets the same TTL. A key reused with a different request
+ * fingerprint is rejected.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+
+    public IdempotencyService(
+            @Value("${orders.idempotency.ttl-minutes:60}") long ttlMinutes,
+            @Value("${orders.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Run {@code action} at most once per key while its result is cached
+     *
+     * @param fingerprint identifies the request payload; a key reused with another payload is rejected
+     * @param keep        whether a result is final and should be replayed to retries
+     * @throws IllegalArgumentException if the key was already used for a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String fingerprint, Supplier<T> action, Predicate<T> keep) {
+        while (true) {
+            Entry created = new Entry(key, fingerprint, System.nanoTime() + ttlNanos);
+            Entry existing = entries.putIfAbsent(key, created);
+
+            if (existing != null) {
+                if (existing.isExpired()) {
+                    entries.remove(key, existing);
+                    continue;
+                }
+                if (!Objects.equals(existing.fingerprint, fingerprint)) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different order");
+                }
+                try {
+                    T result = (T) existing.result.join();
+                    replays.incrementAndGet();
+                    return result;
+                } catch (CompletionException e) {
+                    // The original attempt failed and released the key; try again
+                    continue;
+                }
+            }
+
+            insertionOrder.add(created);
+            queued.incrementAndGet();
+            evict();
+            executions.incrementAndGet();
+            try {
+                T result = action.get();
+                if (!keep.test(result)) {
+                    entries.remove(key, created);
+                }
+                created.result.complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                entries.remove(key, created);
+                created.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Forget a key whose cached result turned out not to be final, such as an
+     * async receipt for an order that intake later failed to persist
+     */
+    public void release(String key) {
+        Entry released = entries.remove(key);
+        if (released != null) {
+            log.debug("Released Idempotency-Key {}", key);
+        }
+    }
+
+    public IdempotencyStats getStats() {
+        return new IdempotencyStats(entries.size(), maxEntries, TimeUnit.NANOSECONDS.toMinutes(ttlNanos),
+                executions.get(), replays.get());
+    }
+
+    /**
+     * Drop expired entries, entries already released, and the oldest ones beyond maxEntries
+     */
+    private void evict() {
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (oldest.isExpired() || queued.get() > maxEntries || entries.get(oldest.key) != oldest)) {
+            if (insertionOrder.remove(oldest)) {
+                queued.decrementAndGet();
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long expiresAt) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    public record IdempotencyStats(int entries, int maxEntries, long ttlMinutes, long executions, long replays) {
+    }
+}
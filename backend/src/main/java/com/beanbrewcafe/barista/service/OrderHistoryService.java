@@ -0,0 +1,228 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderFact;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.model.PriorityFormula;
+import com.beanbrewcafe.barista.repository.OrderHistoryColumnStore;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Order History Service
+ * Feeds completed orders into the columnar store and runs analytics scans over it
+ *
+ * Completions of customer orders (test orders excluded) are appended after commit
+ * from order change events. Existing completed orders are backfilled from the
+ * database at startup, in pages of backfill-chunk-size by order id so memory
+ * stays bounded, until a backfill has finished once; the store ignores
+ * order ids it already holds, so an interrupted backfill simply resumes and
+ * can overlap live appends without duplicating rows.
+ */
+@Service
+@Slf4j
+public class OrderHistoryService {
+
+    private static final int WAIT_HISTOGRAM_BUCKETS = 121; // 0..119 minutes, last bucket = 120+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final OrderHistoryColumnStore columnStore;
+    private final OrderRepository orderRepository;
+    private final boolean backfillOnStart;
+    private final int backfillChunkSize;
+
+    public OrderHistoryService(OrderHistoryColumnStore columnStore,
+            OrderRepository orderRepository,
+            @Value("${history.columnar.backfill-on-start:true}") boolean backfillOnStart,
+            @Value("${history.columnar.backfill-chunk-size:1000}") int backfillChunkSize) {
+        this.columnStore = columnStore;
+        this.orderRepository = orderRepository;
+        this.backfillOnStart = backfillOnStart;
+        this.backfillChunkSize = Math.max(backfillChunkSize, 1);
+    }
+
+    /**
+     * Append an order to history the first time it is committed as COMPLETED
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderSnapshot order = event.current();
+        if (order.status() != Order.OrderStatus.COMPLETED || !event.statusChanged()
+                || order.completionTime() == null || order.testOrder()) {
+            return;
+        }
+
+        int prepMinutes = order.assignedTime() != null
+                ? minutesBetween(order.assignedTime(), order.completionTime())
+                : order.estimatedPrepTime();
+        int waitMinutes = order.waitTimeMinutes() != null
+                ? order.waitTimeMinutes()
+                : minutesBetween(order.orderTime(), order.completionTime());
+
+        columnStore.append(order.id(), epochMillis(order.orderTime()), epochMillis(order.completionTime()),
+                toInt(order.drinkId()), toInt(order.baristaId()), waitMinutes, prepMinutes, order.quantity(),
+                order.drinkName(), order.baristaName());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillOnStart || columnStore.isBackfilled()) {
+            return;
+        }
+
+        long appended = 0;
+        long afterId = 0;
+        PageRequest page = PageRequest.of(0, backfillChunkSize);
+        List<OrderFact> chunk;
+        while (!(chunk = orderRepository.findCustomerOrderFactsAfter(afterId, Order.OrderStatus.COMPLETED, page))
+                .isEmpty()) {
+            for (OrderFact fact : chunk) {
+                if (append(fact)) {
+                    appended++;
+                }
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+        columnStore.markBackfilled();
+        log.info("Backfilled {} completed orders into the history column store", appended);
+    }
+
+    /**
+     * Scan completed-order history for [from, to) by order time.
+     * Reads only primitive columns; names are decoded once per distinct code at the end.
+     */
+    public HistorySummary summarize(LocalDateTime from, LocalDateTime to) {
+        long fromMillis = from != null ? epochMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? epochMillis(to) : Long.MAX_VALUE;
+
+        long started = System.nanoTime();
+        long[] totals = new long[4]; // rows, timeouts, wait sum, prep sum
+        long[] waitHistogram = new long[WAIT_HISTOGRAM_BUCKETS];
+        Map<Integer, long[]> byDrink = new TreeMap<>(); // code -> {count, prep sum}
+        Map<Integer, long[]> byBarista = new TreeMap<>();
+
+        columnStore.scan(segment -> {
+            int rows = segment.rows();
+            for (int row = 0; row < rows; row++) {
+                long orderTime = segment.orderTime(row);
+                if (orderTime < fromMillis || orderTime >= toMillis) {
+                    continue;
+                }
+                int wait = segment.waitMinutes(row);
+                int prep = segment.prepMinutes(row);
+
+                totals[0]++;
+                totals[2] += wait;
+                totals[3] += prep;
+                if (wait > PriorityFormula.MAX_WAIT_MINUTES) {
+                    totals[1]++;
+                }
+                waitHistogram[Math.min(Math.max(wait, 0), WAIT_HISTOGRAM_BUCKETS - 1)]++;
+
+                long[] drink = byDrink.computeIfAbsent(segment.drinkNameCode(row), code -> new long[2]);
+                drink[0]++;
+                drink[1] += prep;
+                long[] barista = byBarista.computeIfAbsent(segment.baristaNameCode(row), code -> new long[2]);
+                barista[0]++;
+                barista[1] += prep;
+            }
+        });
+
+        long count = totals[0];
+        return new HistorySummary(
+                count,
+                count == 0 ? 0.0 : round((double) totals[1] / count * 100),
+                count == 0 ? 0.0 : round((double) totals[2] / count),
+                percentile(waitHistogram, count, 0.5),
+                percentile(waitHistogram, count, 0.9),
+                percentile(waitHistogram, count, 0.99),
+                count == 0 ? 0.0 : round((double) totals[3] / count),
+                decodeBreakdown(byDrink),
+                decodeBreakdown(byBarista),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private boolean append(OrderFact fact) {
+        int quantity = fact.quantity() != null ? fact.quantity() : 1;
+        int prepMinutes = fact.assignedTime() != null
+                ? minutesBetween(fact.assignedTime(), fact.completionTime())
+                : (fact.drinkPrepTime() != null ? fact.drinkPrepTime() : 0) * quantity;
+        int waitMinutes = fact.waitTimeMinutes() != null
+                ? fact.waitTimeMinutes()
+                : minutesBetween(fact.orderTime(), fact.completionTime());
+
+        return columnStore.append(fact.id(), epochMillis(fact.orderTime()), epochMillis(fact.completionTime()),
+                toInt(fact.drinkId()), toInt(fact.baristaId()), waitMinutes, prepMinutes, quantity,
+                fact.drinkName(), fact.baristaName());
+    }
+
+    private Map<String, Breakdown> decodeBreakdown(Map<Integer, long[]> byCode) {
+        Map<String, Breakdown> result = new TreeMap<>();
+        byCode.forEach((code, values) -> {
+            String name = code == OrderHistoryColumnStore.NO_VALUE ? "Unassigned" : columnStore.decode(code);
+            result.put(name, new Breakdown(values[0], round((double) values[1] / values[0])));
+        });
+        return result;
+    }
+
+    private static int percentile(long[] histogram, long count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * quantile);
+        long seen = 0;
+        for (int minutes = 0; minutes < histogram.length; minutes++) {
+            seen += histogram[minutes];
+            if (seen >= target) {
+                return minutes;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    private static int minutesBetween(LocalDateTime start, LocalDateTime end) {
+        return (int) Math.max(Duration.between(start, end).toMinutes(), 0);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static int toInt(Long id) {
+        return id != null ? id.intValue() : OrderHistoryColumnStore.NO_VALUE;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    public record Breakdown(long orders, double avgPrepMinutes) {
+    }
+
+    public record HistorySummary(
+            long completedOrders,
+            double timeoutRate,
+            double avgWaitMinutes,
+            int p50WaitMinutes,
+            int p90WaitMinutes,
+            int p99WaitMinutes,
+            double avgPrepMinutes,
+            Map<String, Breakdown> byDrink,
+            Map<String, Breakdown> byBarista,
+            long scanMillis) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderIntakeRequest;
+import com.beanbrewcafe.barista.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Order Intake Service
+ * Asynchronous order intake: accept in microseconds, persist in batches
+ *
+ * PIPELINE:
+ * 1. Request thread validates against in-memory state, reserves an order number
+ *    and offers the request to a bounded lock-free ring buffer (never blocks)
+ * 2. A single "order-intake" consumer drains up to batch-size requests at a time
+ *    and persists them in one transaction via OrderService.createOrders
+ * 3. If a batch fails, its requests are retried one by one so a single bad
+ *    request cannot reject its neighbours; failures are kept for status lookups
+ *    and release the request's Idempotency-Key, whose cached 202 receipt would
+ *    otherwise point retries at an order that never got persisted
+ *
+ * A full buffer is reported to the caller (HTTP 503) instead of queueing unboundedly.
+ */
+@Service
+@Slf4j
+public class OrderIntakeService {
+
+    private static final int MAX_REMEMBERED_FAILURES = 1024;
+
+    private final OrderService orderService;
+    private final DrinkCatalog drinkCatalog;
+    private final IdempotencyService idempotencyService;
+    private final MpscRingBuffer<OrderIntakeRequest> buffer;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final boolean asyncByDefault;
+
+    private final Set<String> queuedOrderNumbers = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> failures = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_REMEMBERED_FAILURES;
+                }
+            });
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public OrderIntakeService(OrderService orderService,
+            DrinkCatalog drinkCatalog,
+            IdempotencyService idempotencyService,
+            @Value("${orders.intake.buffer-size:4096}") int bufferSize,
+            @Value("${orders.intake.batch-size:64}") int batchSize,
+            @Value("${orders.intake.idle-park-micros:500}") long idleParkMicros,
+            @Value("${orders.intake.async-by-default:false}") boolean asyncByDefault) {
+        this.orderService = orderService;
+        this.drinkCatalog = drinkCatalog;
+        this.idempotencyService = idempotencyService;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.batchSize = Math.max(batchSize, 1);
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(idleParkMicros);
+        this.asyncByDefault = asyncByDefault;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        consumer = new Thread(this::consume, "order-intake");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Validate and enqueue an order
+     *
+     * @return the reserved order number, or empty if the intake buffer is full
+     * @throws IllegalArgumentException if the drink does not exist
+     */
+    public Optional<OrderIntakeRequest> submit(Long drinkId, int quantity, String customerPhone, String customerName,
+            String idempotencyKey) {
+        if (!drinkCatalog.exists(drinkId)) {
+            throw new IllegalArgumentException("Drink not found");
+        }
+
+        OrderIntakeRequest request = new OrderIntakeRequest(orderService.generateOrderNumber(),
+                LocalDateTime.now(), drinkId, quantity, customerPhone, customerName, idempotencyKey);
+        queuedOrderNumbers.add(request.orderNumber());
+        if (!buffer.offer(request)) {
+            queuedOrderNumbers.remove(request.orderNumber());
+            rejected.incrementAndGet();
+            return Optional.empty();
+        }
+        accepted.incrementAndGet();
+        LockSupport.unpark(consumer);
+        return Optional.of(request);
+    }
+
+    /**
+     * Whether POST /api/orders uses async intake without an explicit Prefer: respond-async
+     */
+    public boolean isAsyncByDefault() {
+        return asyncByDefault;
+    }
+
+    /**
+     * True while an accepted order has not been persisted (or failed) yet
+     */
+    public boolean isQueued(String orderNumber) {
+        return queuedOrderNumbers.contains(orderNumber);
+    }
+
+    /**
+     * Failure reason for an accepted order that could not be persisted
+     */
+    public Optional<String> getFailure(String orderNumber) {
+        return Optional.ofNullable(failures.get(orderNumber));
+    }
+
+    public IntakeStats getStats() {
+        return new IntakeStats(buffer.size(), buffer.capacity(), batchSize,
+                accepted.get(), rejected.get(), persisted.get(), failed.get(), batches.get());
+    }
+
+    private void consume() {
+        List<OrderIntakeRequest> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            buffer.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            persist(batch);
+            batch.clear();
+        }
+    }
+
+    private void persist(List<OrderIntakeRequest> batch) {
+        batches.incrementAndGet();
+        try {
+            orderService.createOrders(batch);
+            persisted.addAndGet(batch.size());
+            batch.forEach(request -> queuedOrderNumbers.remove(request.orderNumber()));
+        } catch (RuntimeException batchError) {
+            log.warn("Intake batch of {} failed ({}), retrying individually", batch.size(), batchError.getMessage());
+            for (OrderIntakeRequest request : batch) {
+                try {
+                    orderService.createOrders(List.of(request));
+                    persisted.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    failures.put(request.orderNumber(), e.getMessage() != null ? e.getMessage() : e.toString());
+                    log.error("Failed to persist order {}: {}", request.orderNumber(), e.getMessage());
+                    if (request.idempotencyKey() != null) {
+                        idempotencyService.release(request.idempotencyKey());
+                    }
+                } finally {
+                    queuedOrderNumbers.remove(request.orderNumber());
+                }
+            }
+        }
+    }
+
+    public record IntakeStats(
+            int queued,
+            int capacity,
+            int batchSize,
+            long accepted,
+            long rejected,
+            long persisted,
+            long failed,
+            long batches) {
+    }
+}
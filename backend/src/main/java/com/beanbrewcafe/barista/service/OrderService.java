@@ -1,5 +1,6 @@
 package com.beanbrewcafe.barista.service;
 
+import com.beanbrewcafe.barista.dto.OrderIntakeRequest;
 import com.beanbrewcafe.barista.model.Customer;
 import com.beanbrewcafe.barista.model.Drink;
 import com.beanbrewcafe.barista.model.Order;
@@ -14,9 +15,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,12 +33,24 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final DrinkRepository drinkRepository;
     private final CustomerRepository customerRepository;
+    private final PrepTimeEstimator prepTimeEstimator;
+
+    private final AtomicInteger orderNumberSequence = new AtomicInteger();
 
     /**
      * Create a new order
      */
     @Transactional
     public Order createOrder(Long drinkId, Integer quantity, String customerPhone, String customerName) {
+        return createOrder(drinkId, quantity, customerPhone, customerName, null);
+    }
+
+    /**
+     * Create a new order, recording the client's Idempotency-Key (may be null)
+     */
+    @Transactional
+    public Order createOrder(Long drinkId, Integer quantity, String customerPhone, String customerName,
+            String idempotencyKey) {
         // Get or create customer
         Customer customer = null;
         if (customerPhone != null && !customerPhone.isEmpty()) {
@@ -44,16 +63,7 @@ public class OrderService {
                         return customerRepository.save(newCustomer);
                     });
 
-            // Update visit count
-            customer.setTotalVisits(customer.getTotalVisits() + 1);
-
-            // Update loyalty status based on visits
-            if (customer.getTotalVisits() >= 50) {
-                customer.setLoyaltyStatus(Customer.LoyaltyStatus.GOLD);
-            } else if (customer.getTotalVisits() >= 10) {
-                customer.setLoyaltyStatus(Customer.LoyaltyStatus.REGULAR);
-            }
-
+            recordVisit(customer);
             customerRepository.save(customer);
         }
 
@@ -69,9 +79,10 @@ public class OrderService {
         order.setQuantity(quantity);
         order.setStatus(Order.OrderStatus.PENDING);
         order.setOrderTime(LocalDateTime.now());
+        order.setIdempotencyKey(idempotencyKey);
 
         // Calculate initial priority
-        order.calculatePriorityScore();
+        order.calculatePriorityScore(prepTimeEstimator.estimate(order));
 
         Order savedOrder = orderRepository.save(order);
 
@@ -84,6 +95,78 @@ public class OrderService {
         return savedOrder;
     }
 
+    /**
+     * Persist a batch of orders accepted by the async intake pipeline in one transaction.
+     * Drinks and existing customers are fetched with one query each instead of per order.
+     * Order ids use IDENTITY generation, so Hibernate still issues one INSERT per order,
+     * but they share a single connection checkout and commit.
+     */
+    @Transactional
+    public List<Order> createOrders(List<OrderIntakeRequest> requests) {
+        Set<Long> drinkIds = requests.stream().map(OrderIntakeRequest::drinkId).collect(Collectors.toSet());
+        Map<Long, Drink> drinks = drinkRepository.findAllById(drinkIds).stream()
+                .collect(Collectors.toMap(Drink::getId, Function.identity()));
+
+        Set<String> phones = requests.stream()
+                .map(OrderIntakeRequest::customerPhone)
+                .filter(phone -> phone != null && !phone.isEmpty())
+                .collect(Collectors.toSet());
+        Map<String, Customer> customers = phones.isEmpty() ? new HashMap<>()
+                : customerRepository.findByPhoneIn(phones).stream()
+                        .collect(Collectors.toMap(Customer::getPhone, Function.identity(), (a, b) -> a, HashMap::new));
+
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (OrderIntakeRequest request : requests) {
+            Drink drink = drinks.get(request.drinkId());
+            if (drink == null) {
+                throw new RuntimeException("Drink not found");
+            }
+
+            Customer customer = null;
+            String phone = request.customerPhone();
+            if (phone != null && !phone.isEmpty()) {
+                customer = customers.computeIfAbsent(phone, key -> {
+                    Customer newCustomer = new Customer();
+                    newCustomer.setPhone(key);
+                    newCustomer.setName(request.customerName());
+                    newCustomer.setLoyaltyStatus(Customer.LoyaltyStatus.NEW);
+                    return customerRepository.save(newCustomer);
+                });
+                recordVisit(customer);
+            }
+
+            Order order = new Order();
+            order.setOrderNumber(request.orderNumber());
+            order.setDrink(drink);
+            order.setCustomer(customer);
+            order.setQuantity(request.quantity());
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setOrderTime(request.orderTime());
+            order.setIdempotencyKey(request.idempotencyKey());
+            order.calculatePriorityScore(prepTimeEstimator.estimate(order));
+            orders.add(order);
+        }
+
+        // Customer visit counts are flushed by dirty checking at commit
+        List<Order> saved = orderRepository.saveAll(orders);
+        log.info("Created {} orders from intake batch", saved.size());
+        return saved;
+    }
+
+    /**
+     * Get order by its public order number
+     */
+    public Optional<Order> getOrderByNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber);
+    }
+
+    /**
+     * Find the order created by a request carrying this Idempotency-Key
+     */
+    public Optional<Order> getOrderByIdempotencyKey(String idempotencyKey) {
+        return orderRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
     /**
      * Get all pending orders sorted by priority
      */
@@ -129,10 +212,24 @@ public class OrderService {
     }
 
     /**
-     * Generate unique order number
+     * Generate unique order number (millisecond clock + rolling 4-digit sequence)
+     */
+    public String generateOrderNumber() {
+        int sequence = Math.floorMod(orderNumberSequence.getAndIncrement(), 10000);
+        return "ORD" + System.currentTimeMillis() + String.format("%04d", sequence);
+    }
+
+    /**
+     * Count a visit and upgrade loyalty status based on visits
      */
-    private String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis() + String.format("%04d", new Random().nextInt(10000));
+    private void recordVisit(Customer customer) {
+        customer.setTotalVisits(customer.getTotalVisits() + 1);
+
+        if (customer.getTotalVisits() >= 50) {
+            customer.setLoyaltyStatus(Customer.LoyaltyStatus.GOLD);
+        } else if (customer.getTotalVisits() >= 10) {
+            customer.setLoyaltyStatus(Customer.LoyaltyStatus.REGULAR);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Order Watch Service
+ * Server-Sent Events registry keyed by order id
+ *
+ * Each waiting customer holds one SseEmitter (servlet async, no thread per
+ * connection). Status, queue position and ETA are read from QueuePositionIndex,
+ * never the database. Any committed queue change marks the registry dirty and a
+ * single pusher thread sends only the updates whose content actually changed,
+ * so a burst of queue activity costs one pass over the watchers.
+ * Streams complete automatically once the order is COMPLETED or CANCELLED. An
+ * order can leave the index between the position check and registration, after
+ * its terminal event has already gone by; the database is read only in that case
+ * to learn how it ended.
+ */
+@Service
+@Slf4j
+public class OrderWatchService {
+
+    private final QueuePositionIndex queuePositionIndex;
+    private final OrderRepository orderRepository;
+    private final long emitterTimeoutMillis;
+    private final long pushIntervalMillis;
+    private final long heartbeatMillis;
+
+    private final Map<Long, Watch> watches = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private ScheduledExecutorService pusher;
+
+    public OrderWatchService(QueuePositionIndex queuePositionIndex,
+            OrderRepository orderRepository,
+            @Value("${orders.watch.timeout:1800000}") long emitterTimeoutMillis,
+            @Value("${orders.watch.push-interval:1000}") long pushIntervalMillis,
+            @Value("${orders.watch.heartbeat-interval:15000}") long heartbeatMillis) {
+        this.queuePositionIndex = queuePositionIndex;
+        this.orderRepository = orderRepository;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.pushIntervalMillis = pushIntervalMillis;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        pusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-watch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pusher.scheduleWithFixedDelay(this::push, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pusher.shutdownNow();
+        watches.values().forEach(watch -> watch.emitters.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Open a stream for an order that is still in the queue.
+     * The first event is sent immediately with the current position.
+     *
+     * @return empty if the order is not pending or in progress
+     */
+    public Optional<SseEmitter> watch(Long orderId) {
+        Optional<QueuePositionIndex.QueuePosition> position = queuePositionIndex.getPosition(orderId);
+        if (position.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        watches.compute(orderId, (id, watch) -> {
+            Watch target = watch != null ? watch : new Watch();
+            target.emitters.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> detach(orderId, emitter));
+        emitter.onTimeout(() -> detach(orderId, emitter));
+        emitter.onError(error -> detach(orderId, emitter));
+
+        OrderStatusUpdate update = OrderStatusUpdate.of(position.get());
+        if (send(emitter, update)) {
+            // The pusher skips unchanged content until the next heartbeat, measured from here
+            Watch watch = watches.get(orderId);
+            if (watch != null) {
+                watch.lastSent = update;
+                watch.lastSentAt = System.currentTimeMillis();
+            }
+        } else {
+            detach(orderId, emitter);
+        }
+
+        // Finished while registering: its terminal event may have fired before the watch existed
+        if (queuePositionIndex.getPosition(orderId).isEmpty()) {
+            Watch watch = watches.get(orderId);
+            if (watch != null && watch.terminalStatus == null) {
+                if (watch.lastSent == null) {
+                    watch.lastSent = update; // the final event reuses its order number
+                }
+                watch.terminalStatus = terminalStatusOf(orderId);
+                dirty.set(true);
+            }
+        }
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (watches.isEmpty()) {
+            return;
+        }
+        Watch watch = watches.get(event.current().id());
+        if (watch != null) {
+            Order.OrderStatus status = event.current().status();
+            if (event.type() == ChangeType.DELETED) {
+                watch.terminalStatus = Order.OrderStatus.CANCELLED;
+            } else if (status == Order.OrderStatus.COMPLETED || status == Order.OrderStatus.CANCELLED) {
+                watch.terminalStatus = status;
+            }
+        }
+        // Any queue change can shift other customers' positions
+        dirty.set(true);
+    }
+
+    private void push() {
+        try {
+            boolean changed = dirty.getAndSet(false);
+            long now = System.currentTimeMillis();
+
+            for (Map.Entry<Long, Watch> entry : watches.entrySet()) {
+                Long orderId = entry.getKey();
+                Watch watch = entry.getValue();
+
+                if (watch.terminalStatus != null) {
+                    OrderStatusUpdate last = watch.lastSent;
+                    OrderStatusUpdate finalUpdate = new OrderStatusUpdate(orderId,
+                            last != null ? last.orderNumber() : null, watch.terminalStatus.name(),
+                            0, 0, 0, LocalDateTime.now());
+                    watch.emitters.forEach(emitter -> {
+                        send(emitter, finalUpdate);
+                        emitter.complete();
+                    });
+                    watches.remove(orderId);
+                    continue;
+                }
+
+                // Wait/ETA drift with time even without queue changes, so heartbeats also re-check
+                boolean heartbeatDue = now - watch.lastSentAt >= heartbeatMillis;
+                if (!changed && !heartbeatDue) {
+                    continue;
+                }
+
+                OrderStatusUpdate update = queuePositionIndex.getPosition(orderId)
+                        .map(OrderStatusUpdate::of)
+                        .orElse(null);
+                if (update == null) {
+                    // Left the index; close now if the terminal event was missed, else it is on its way
+                    Order.OrderStatus status = terminalStatusOf(orderId);
+                    if (status != null) {
+                        watch.terminalStatus = status;
+                        dirty.set(true);
+                    }
+                    continue;
+                }
+                if (update.sameContentAs(watch.lastSent) && !heartbeatDue) {
+                    continue;
+                }
+                watch.lastSent = update;
+                watch.lastSentAt = now;
+                watch.emitters.removeIf(emitter -> !send(emitter, update));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Order watch push failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * COMPLETED or CANCELLED (also for a deleted order), or null while the order is still queued
+     */
+    private Order.OrderStatus terminalStatusOf(Long orderId) {
+        Order.OrderStatus status = orderRepository.findById(orderId)
+                .map(Order::getStatus)
+                .orElse(Order.OrderStatus.CANCELLED);
+        return status == Order.OrderStatus.COMPLETED || status == Order.OrderStatus.CANCELLED ? status : null;
+    }
+
+    private boolean send(SseEmitter emitter, OrderStatusUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(update));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void detach(Long orderId, SseEmitter emitter) {
+        watches.computeIfPresent(orderId, (id, watch) -> {
+            watch.emitters.remove(emitter);
+            return watch.emitters.isEmpty() ? null : watch;
+        });
+    }
+
+    private static final class Watch {
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        volatile Order.OrderStatus terminalStatus;
+        volatile OrderStatusUpdate lastSent;
+        volatile long lastSentAt;
+    }
+
+    public record OrderStatusUpdate(
+            Long orderId,
+            String orderNumber,
+            String status,
+            int position,
+            int ordersAhead,
+            int estimatedWaitMinutes,
+            LocalDateTime estimatedReadyTime) {
+
+        static OrderStatusUpdate of(QueuePositionIndex.QueuePosition position) {
+            return new OrderStatusUpdate(position.orderId(), position.orderNumber(), position.status(),
+                    position.position(), position.ordersAhead(), position.estimatedWaitMinutes(),
+                    position.estimatedReadyTime());
+        }
+
+        boolean sameContentAs(OrderStatusUpdate other) {
+            return other != null
+                    && Objects.equals(status, other.status)
+                    && position == other.position
+                    && estimatedWaitMinutes == other.estimatedWaitMinutes;
+        }
+    }
+}
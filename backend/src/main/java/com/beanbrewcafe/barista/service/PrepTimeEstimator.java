@@ -0,0 +1,309 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderFact;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Prep Time Estimator
+ * Learns how long orders really take from assignedTime -> completionTime
+ *
+ * The static drink prep time x quantity is only the cold-start prior. Three
+ * exponentially weighted moving averages refine it:
+ * - per drink: actual / static minutes, applied to every quantity
+ * - per drink and quantity: actual minutes, for quantities that don't scale linearly
+ * - per barista: actual / drink estimate, a personal speed factor
+ *
+ * Each average is shrunk toward its prior by n / (n + prior-weight), so a few
+ * observations nudge the estimate and a steady stream takes it over. Ratios are
+ * clamped to [1/max-ratio, max-ratio] so a forgotten "complete" click doesn't
+ * poison the averages.
+ *
+ * OBSERVATIONS:
+ * - Reported completions (PriorityQueueService.completeOrder) are exact
+ * - Auto-completions (completion timers, the COMPLETE stage) only show that the
+ *   order took at least that long: it was still running when its estimate ran out.
+ *   Learning from the early reports alone would drag the averages down and make
+ *   the timers fire earlier still, so each auto-completion counts as having
+ *   overrun by as much as early reports typically finish ahead (a running
+ *   average of their relative shortfall). The two balance out when about half
+ *   the orders finish inside their estimate. An auto-completion that would not
+ *   raise the current estimate carries no usable information and is skipped.
+ * Batched orders are skipped, since their duration covers the whole batch.
+ *
+ * Averages are in memory; at startup they are warm-started from the last
+ * warm-start-days of completed customer orders, one day at a time, treating
+ * completions that landed within a minute after their charged estimate as
+ * auto-completions.
+ */
+@Component
+@Slf4j
+public class PrepTimeEstimator {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final double alpha;
+    private final double priorWeight;
+    private final double maxRatio;
+    private final int warmStartDays;
+
+    private final Map<Long, Ewma> drinkRatios = new ConcurrentHashMap<>();
+    private final Map<DrinkQuantity, Ewma> drinkQuantityMinutes = new ConcurrentHashMap<>();
+    private final Map<Long, Ewma> baristaRatios = new ConcurrentHashMap<>();
+    private final Map<Long, String> drinkNames = new ConcurrentHashMap<>();
+    // Relative shortfall (1 - actual / estimate) of reports that came in early
+    private final AtomicReference<Ewma> earlyShortfall = new AtomicReference<>();
+    private final AtomicLong exactObservations = new AtomicLong();
+    private final AtomicLong atLeastObservations = new AtomicLong();
+
+    public PrepTimeEstimator(OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${prep-estimates.enabled:true}") boolean enabled,
+            @Value("${prep-estimates.alpha:0.2}") double alpha,
+            @Value("${prep-estimates.prior-weight:3}") double priorWeight,
+            @Value("${prep-estimates.max-ratio:4}") double maxRatio,
+            @Value("${prep-estimates.warm-start-days:28}") int warmStartDays) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.alpha = Math.min(Math.max(alpha, 0.01), 1.0);
+        this.priorWeight = Math.max(priorWeight, 0.0);
+        this.maxRatio = Math.max(maxRatio, 1.0);
+        this.warmStartDays = Math.max(warmStartDays, 0);
+    }
+
+    /**
+     * Replay recent completed orders so estimates survive a restart
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (!enabled || warmStartDays == 0) {
+            return;
+        }
+        long before = exactObservations.get() + atLeastObservations.get();
+        LocalDate today = LocalDate.now();
+        // Day by day and oldest first: bounded result sets, and recent days weigh most
+        for (LocalDate day = today.minusDays(warmStartDays); !day.isAfter(today); day = day.plusDays(1)) {
+            LocalDateTime from = day.atStartOfDay();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<OrderFact> facts = orderRepository.streamCustomerOrderFacts(from, from.plusDays(1))) {
+                    facts.forEach(this::replay);
+                }
+            });
+        }
+        log.info("Prep-time estimates warm-started from {} completed orders of the last {} days",
+                exactObservations.get() + atLeastObservations.get() - before, warmStartDays);
+    }
+
+    /**
+     * Expected minutes for a pending order, whoever makes it
+     */
+    public int estimate(Order order) {
+        return estimate(order.getDrink(), order.getQuantity(), null);
+    }
+
+    /**
+     * Expected minutes for {@code quantity} of a drink made by {@code barista}
+     * (null for no particular barista); never below one minute
+     */
+    public int estimate(Drink drink, int quantity, Barista barista) {
+        double minutes = estimateMinutes(drink.getId(), drink.getPrepTime(), quantity);
+        if (enabled && barista != null) {
+            minutes *= shrunk(baristaRatios.get(barista.getId()), 1.0);
+        }
+        return Math.max(1, (int) Math.round(minutes));
+    }
+
+    /**
+     * Unrounded expected minutes for {@code quantity} of a drink whose static prep
+     * time is {@code unitPrep}, whoever makes it (for forecasts over history rows)
+     */
+    public double estimateMinutes(Long drinkId, int unitPrep, int quantity) {
+        if (!enabled) {
+            return unitPrep * quantity;
+        }
+        return drinkEstimate(drinkId, unitPrep, quantity);
+    }
+
+    /**
+     * Learn from an order its barista reported complete
+     */
+    public void record(Order order) {
+        recordOrder(order, false);
+    }
+
+    /**
+     * Learn from an order that was auto-completed when its estimate ran out:
+     * it took at least assigned -> completion
+     */
+    public void recordAtLeast(Order order) {
+        recordOrder(order, true);
+    }
+
+    private void recordOrder(Order order, boolean atLeast) {
+        if (!enabled || order.getAssignedTime() == null || order.getCompletionTime() == null
+                || order.getBatchId() != null || order.getDrink().getPrepTime() == null) {
+            return;
+        }
+        Drink drink = order.getDrink();
+        observe(drink.getId(), drink.getName(), drink.getPrepTime(), order.getQuantity(),
+                order.getBarista() != null ? order.getBarista().getId() : null,
+                minutesBetween(order.getAssignedTime(), order.getCompletionTime()), atLeast);
+    }
+
+    private void replay(OrderFact fact) {
+        if (fact.status() != Order.OrderStatus.COMPLETED || fact.assignedTime() == null
+                || fact.completionTime() == null || fact.batchId() != null
+                || fact.drinkPrepTime() == null || fact.quantity() == null) {
+            return;
+        }
+        double minutes = minutesBetween(fact.assignedTime(), fact.completionTime());
+        boolean atLeast = fact.assignedPrepMinutes() != null
+                && minutes >= fact.assignedPrepMinutes() && minutes < fact.assignedPrepMinutes() + 1;
+        observe(fact.drinkId(), fact.drinkName(), fact.drinkPrepTime(), fact.quantity(), fact.baristaId(),
+                minutes, atLeast);
+    }
+
+    private void observe(Long drinkId, String drinkName, int unitPrep, int quantity, Long baristaId,
+            double minutes, boolean atLeast) {
+        int staticMinutes = unitPrep * quantity;
+        if (minutes <= 0 || staticMinutes <= 0) {
+            return;
+        }
+        // Estimates before this observation
+        double drinkMinutes = drinkEstimate(drinkId, unitPrep, quantity);
+        double baristaFactor = baristaId != null ? shrunk(baristaRatios.get(baristaId), 1.0) : 1.0;
+        double expected = drinkMinutes * baristaFactor;
+
+        double actual = minutes;
+        if (atLeast) {
+            Ewma shortfall = earlyShortfall.get();
+            actual = minutes * (1 + (shortfall != null ? shortfall.mean() : 0.0));
+            if (actual <= expected) {
+                return;
+            }
+            atLeastObservations.incrementAndGet();
+        } else {
+            if (actual < expected) {
+                double relative = 1 - actual / expected;
+                earlyShortfall.updateAndGet(current -> current == null
+                        ? Ewma.first(relative) : current.next(relative, alpha));
+            }
+            exactObservations.incrementAndGet();
+        }
+        actual = Math.min(Math.max(actual, staticMinutes / maxRatio), staticMinutes * maxRatio);
+
+        // The barista factor is measured against the drink estimate before this observation
+        if (baristaId != null) {
+            double ratio = Math.min(Math.max(actual / drinkMinutes, 1.0 / maxRatio), maxRatio);
+            baristaRatios.merge(baristaId, Ewma.first(ratio), (current, ignored) -> current.next(ratio, alpha));
+        }
+        double ratio = actual / staticMinutes;
+        drinkRatios.merge(drinkId, Ewma.first(ratio), (current, ignored) -> current.next(ratio, alpha));
+        double observed = actual;
+        drinkQuantityMinutes.merge(new DrinkQuantity(drinkId, unitPrep, quantity),
+                Ewma.first(observed), (current, ignored) -> current.next(observed, alpha));
+        if (drinkName != null) {
+            drinkNames.put(drinkId, drinkName);
+        }
+
+        log.debug("Drink {} x {} took {}{} min (static {} min)", drinkName, quantity,
+                atLeast ? "at least " : "", String.format("%.1f", minutes), staticMinutes);
+    }
+
+    /**
+     * Learned state: one row per drink and quantity seen, and one per barista
+     */
+    public EstimatorStats getStats() {
+        List<DrinkEstimate> drinkRows = drinkQuantityMinutes.entrySet().stream()
+                .map(entry -> {
+                    DrinkQuantity key = entry.getKey();
+                    return new DrinkEstimate(key.drinkId(), drinkNames.get(key.drinkId()), key.quantity(),
+                            key.unitPrep() * key.quantity(),
+                            Math.max(1, (int) Math.round(drinkEstimate(key.drinkId(), key.unitPrep(), key.quantity()))),
+                            entry.getValue().count());
+                })
+                .sorted(Comparator.comparing(DrinkEstimate::drinkId).thenComparing(DrinkEstimate::quantity))
+                .toList();
+        List<BaristaFactor> baristaRows = baristaRatios.entrySet().stream()
+                .map(entry -> new BaristaFactor(entry.getKey(), shrunk(entry.getValue(), 1.0),
+                        entry.getValue().count()))
+                .sorted(Comparator.comparing(BaristaFactor::baristaId))
+                .toList();
+        Ewma shortfall = earlyShortfall.get();
+        return new EstimatorStats(enabled, alpha, priorWeight, exactObservations.get(), atLeastObservations.get(),
+                shortfall != null ? shortfall.mean() : 0.0, drinkRows, baristaRows);
+    }
+
+    private double drinkEstimate(Long drinkId, int unitPrep, int quantity) {
+        double prior = unitPrep * quantity * shrunk(drinkRatios.get(drinkId), 1.0);
+        return shrunk(drinkQuantityMinutes.get(new DrinkQuantity(drinkId, unitPrep, quantity)), prior);
+    }
+
+    /**
+     * Blend an average with its prior by n / (n + prior-weight)
+     */
+    private double shrunk(Ewma ewma, double prior) {
+        if (ewma == null) {
+            return prior;
+        }
+        double weight = ewma.count() / (ewma.count() + priorWeight);
+        return weight * ewma.mean() + (1 - weight) * prior;
+    }
+
+    private static double minutesBetween(LocalDateTime start, LocalDateTime end) {
+        return Duration.between(start, end).toMillis() / 60_000.0;
+    }
+
+    // Keyed on the static prep time too, so editing a drink's prep time starts its cells over
+    private record DrinkQuantity(Long drinkId, int unitPrep, int quantity) {
+    }
+
+    private record Ewma(double mean, long count) {
+
+        static Ewma first(double value) {
+            return new Ewma(value, 1);
+        }
+
+        Ewma next(double value, double alpha) {
+            return new Ewma(mean + alpha * (value - mean), count + 1);
+        }
+    }
+
+    public record DrinkEstimate(Long drinkId, String drinkName, int quantity,
+            int staticMinutes, int estimatedMinutes, long observations) {
+    }
+
+    public record BaristaFactor(Long baristaId, double speedFactor, long observations) {
+    }
+
+    /**
+     * @param earlyShortfall mean relative shortfall of early reports, the overrun credited to auto-completions
+     */
+    public record EstimatorStats(boolean enabled, double alpha, double priorWeight,
+            long exactObservations, long atLeastObservations, double earlyShortfall,
+            List<DrinkEstimate> drinks, List<BaristaFactor> baristas) {
+    }
+}
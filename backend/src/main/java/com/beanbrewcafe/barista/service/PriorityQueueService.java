@@ -1,9 +1,17 @@
 package com.beanbrewcafe.barista.service;
 
+import com.beanbrewcafe.barista.jfr.AssignmentDecisionEvent;
+import com.beanbrewcafe.barista.jfr.PriorityRecalculationEvent;
 import com.beanbrewcafe.barista.model.Barista;
 import com.beanbrewcafe.barista.model.Order;
 import com.beanbrewcafe.barista.repository.BaristaRepository;
 import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.scheduler.policy.BaristaState;
+import com.beanbrewcafe.barista.scheduler.policy.CandidateOrder;
+import com.beanbrewcafe.barista.scheduler.policy.PolicyDecision;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingContext;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicies;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,7 +19,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -19,7 +31,7 @@ import java.util.Optional;
  * Implements the Dynamic Priority Queue with Predictive Scheduling algorithm
  * 
  * This is the CORE of the smart queuing system that:
- * 1. Recalculates priorities every 30 seconds
+ * 1. Recalculates priorities on every scheduling tick
  * 2. Assigns orders intelligently based on workload
  * 3. Ensures fairness and emergency handling
  * 4. Balances barista workload
@@ -31,26 +43,37 @@ public class PriorityQueueService {
 
     private final OrderRepository orderRepository;
     private final BaristaRepository baristaRepository;
+    private final BatchPlanner batchPlanner;
+    private final StationCapacityService stationCapacityService;
+    private final SchedulingPolicies schedulingPolicies;
+    private final WorkSlots workSlots;
+    private final PrepTimeEstimator prepTimeEstimator;
 
-    private static final int MAX_WAIT_TIME = 10; // minutes
     private static final int EMERGENCY_THRESHOLD = 8; // minutes
     private static final int MAX_SKIP_COUNT = 3;
 
     /**
      * Recalculate priority scores for all pending orders
-     * Called every 30 seconds by scheduler
+     * Also available as a one-off pass; the scheduling runtime rescores in its own tick
      */
     @Transactional
     public void recalculatePriorities() {
+        PriorityRecalculationEvent recalculationEvent = new PriorityRecalculationEvent();
+        recalculationEvent.begin();
+
         List<Order> pendingOrders = orderRepository.findByStatus(Order.OrderStatus.PENDING);
 
         log.debug("Recalculating priorities for {} pending orders", pendingOrders.size());
 
+        int scoresChanged = 0;
+        int escalations = 0;
         for (Order order : pendingOrders) {
             BigDecimal oldScore = order.getPriorityScore();
-            BigDecimal newScore = order.calculatePriorityScore();
+            boolean wasEmergency = order.isEmergencyFlag();
+            BigDecimal newScore = order.calculatePriorityScore(prepTimeEstimator.estimate(order));
 
             if (!oldScore.equals(newScore)) {
+                scoresChanged++;
                 log.debug("Order {}: Priority {} -> {}",
                         order.getOrderNumber(), oldScore, newScore);
             }
@@ -61,9 +84,20 @@ public class PriorityQueueService {
                 log.warn("Order {} flagged as EMERGENCY (wait time: {} min)",
                         order.getOrderNumber(), order.getCurrentWaitMinutes());
             }
+            if (!wasEmergency && order.isEmergencyFlag()) {
+                escalations++;
+            }
         }
 
         orderRepository.saveAll(pendingOrders);
+
+        if (recalculationEvent.shouldCommit()) {
+            recalculationEvent.source = "PriorityQueueService";
+            recalculationEvent.ordersScanned = pendingOrders.size();
+            recalculationEvent.scoresChanged = scoresChanged;
+            recalculationEvent.escalations = escalations;
+            recalculationEvent.commit();
+        }
     }
 
     /**
@@ -86,44 +120,87 @@ public class PriorityQueueService {
             return Optional.empty();
         }
 
-        Barista barista = baristaOpt.get();
-
         // Get pending orders sorted by priority
         List<Order> pendingOrders = orderRepository.findPendingOrdersByPriority();
 
+        // Get average workload per slot for balancing
+        double avgWorkload = baristaRepository.findAll().stream()
+                .filter(barista -> barista.getStatus() != Barista.BaristaStatus.OFFLINE)
+                .mapToDouble(workSlots::effectiveWorkload)
+                .average()
+                .orElse(0.0);
+
+        return assignTo(baristaOpt.get(), pendingOrders, avgWorkload);
+    }
+
+    /**
+     * Assign the best of the given pending orders (sorted by priority) to a barista.
+     * Works on already-loaded entities so a caller holding the whole queue, such as
+     * the scheduling runtime, can assign to several baristas in one pass; the
+     * assigned orders are removed from {@code pendingOrders}. The barista stays
+     * AVAILABLE while they still have a free work slot (see WorkSlots), and
+     * {@code avgWorkload} is the average workload per slot.
+     *
+     * With batching enabled the selected order may bring identical pending drinks
+     * along (see BatchPlanner); the selected order is returned as the batch lead.
+     * Orders whose stations are busy are left pending (see StationCapacityService),
+     * and the prep time charged covers any wait between recipe steps.
+     */
+    @Transactional
+    public Optional<Order> assignTo(Barista barista, List<Order> pendingOrders, double avgWorkload) {
+        AssignmentDecisionEvent decisionEvent = new AssignmentDecisionEvent();
+        decisionEvent.begin();
+
         if (pendingOrders.isEmpty()) {
             log.info("No pending orders for barista {}", barista.getName());
+            recordDecision(decisionEvent, barista, pendingOrders, 0.0, null, null);
             return Optional.empty();
         }
 
-        // Get average workload for balancing
-        Double avgWorkload = baristaRepository.getAverageWorkload();
-        if (avgWorkload == null)
-            avgWorkload = 0.0;
+        // Only consider orders the stations can start now
+        List<Order> candidates = stationCapacityService.startable(pendingOrders);
+        if (candidates.isEmpty()) {
+            log.info("All {} pending orders would queue at busy stations; barista {} stays available",
+                    pendingOrders.size(), barista.getName());
+            recordDecision(decisionEvent, barista, pendingOrders, avgWorkload, null, null);
+            return Optional.empty();
+        }
 
         // Select best order based on barista's current workload
-        Order selectedOrder = selectOrderForBarista(barista, pendingOrders, avgWorkload);
+        Selection selection = selectOrderForBarista(barista, candidates, avgWorkload);
+        Order selectedOrder = selection.order();
+        BatchPlanner.Batch batch = selectedOrder != null ? batchPlanner.plan(selectedOrder, pendingOrders, barista) : null;
+        recordDecision(decisionEvent, barista, candidates, avgWorkload, selection, batch);
 
         if (selectedOrder != null) {
-            // Assign order
-            selectedOrder.setBarista(barista);
-            selectedOrder.setStatus(Order.OrderStatus.IN_PROGRESS);
-            selectedOrder.setAssignedTime(LocalDateTime.now());
+            // Assign order (and any identical drinks batched with it)
+            LocalDateTime assignedTime = LocalDateTime.now();
+            int stationMinutes = stationCapacityService.reserve(selectedOrder.getId(),
+                    selectedOrder.getDrink().getId(), batch.units(), assignedTime);
+            int prepMinutes = Math.max(batch.prepMinutes(), stationMinutes);
+            String batchId = batch.isBatched() ? selectedOrder.getOrderNumber() : null;
+            for (Order order : batch.orders()) {
+                order.setBarista(barista);
+                order.setStatus(Order.OrderStatus.IN_PROGRESS);
+                order.setAssignedTime(assignedTime);
+                order.setAssignedPrepMinutes(prepMinutes);
+                order.setBatchId(batchId);
+            }
 
-            // Update barista workload
-            barista.setCurrentWorkload(
-                    barista.getCurrentWorkload() + selectedOrder.getEstimatedPrepTime());
-            barista.setStatus(Barista.BaristaStatus.BUSY);
+            // Update barista workload (a batch occupies the barista once)
+            barista.setCurrentWorkload(barista.getCurrentWorkload() + prepMinutes);
 
             // Update skip counts for other orders (fairness tracking)
+            pendingOrders.removeAll(batch.orders());
             updateSkipCounts(selectedOrder, pendingOrders);
 
-            orderRepository.save(selectedOrder);
+            orderRepository.saveAll(batch.orders());
+            workSlots.refreshStatus(barista);
             baristaRepository.save(barista);
 
-            log.info("Assigned order {} to barista {} (priority: {}, prep time: {} min)",
+            log.info("Assigned order {} to barista {} (priority: {}, prep time: {} min, batch of {})",
                     selectedOrder.getOrderNumber(), barista.getName(),
-                    selectedOrder.getPriorityScore(), selectedOrder.getEstimatedPrepTime());
+                    selectedOrder.getPriorityScore(), prepMinutes, batch.orders().size());
 
             return Optional.of(selectedOrder);
         }
@@ -132,44 +209,74 @@ public class PriorityQueueService {
     }
 
     /**
-     * Select the best order for a barista based on workload balancing
-     * 
-     * STRATEGY:
-     * - Emergency orders always get highest priority
-     * - Overloaded baristas (>1.2x avg) prefer quick orders
-     * - Underutilized baristas (<0.8x avg) can take complex orders
-     * - Otherwise, assign highest priority order
+     * Select the best order for a barista using the configured SchedulingPolicy
+     * (GreedyPolicy's workload-balancing rules unless scheduler.policy says otherwise).
+     * Candidates carry this barista's estimated prep time (see PrepTimeEstimator).
      */
-    private Order selectOrderForBarista(Barista barista, List<Order> orders, Double avgWorkload) {
-        double workloadRatio = barista.getCurrentWorkload() / Math.max(avgWorkload, 1.0);
+    private Selection selectOrderForBarista(Barista barista, List<Order> orders, Double avgWorkload) {
+        SchedulingPolicy policy = schedulingPolicies.active();
 
-        // RULE 1: Emergency orders get top priority regardless of workload
+        Map<CandidateOrder, Order> byCandidate = new IdentityHashMap<>();
+        List<CandidateOrder> candidates = new ArrayList<>(orders.size());
         for (Order order : orders) {
-            if (order.isEmergencyFlag()) {
-                return order;
-            }
+            CandidateOrder candidate = CandidateOrder.of(order,
+                    prepTimeEstimator.estimate(order.getDrink(), order.getQuantity(), barista));
+            byCandidate.put(candidate, order);
+            candidates.add(candidate);
+        }
+        // Stable sort: ties keep the incoming priority/order-time order
+        candidates.sort(Comparator.comparingDouble(policy::priority).reversed());
+
+        List<BaristaState> otherBaristas = List.of();
+        if (policy.usesOtherBaristas()) {
+            otherBaristas = baristaRepository.findAll().stream()
+                    .filter(other -> !other.getId().equals(barista.getId())
+                            && other.getStatus() != Barista.BaristaStatus.OFFLINE)
+                    .map(this::toState)
+                    .toList();
         }
 
-        // RULE 2: If barista is overloaded (>1.2x average), prefer quick orders
-        if (workloadRatio > 1.2) {
-            log.debug("Barista {} is overloaded ({}x), looking for quick orders",
-                    barista.getName(), String.format("%.2f", workloadRatio));
+        SchedulingContext context = new SchedulingContext(LocalDateTime.now(), toState(barista),
+                otherBaristas, avgWorkload, candidates, false);
+        PolicyDecision decision = policy.select(context);
+        return new Selection(byCandidate.get(decision.order()), decision.rule());
+    }
 
-            for (Order order : orders) {
-                if (order.getEstimatedPrepTime() <= 2) { // Quick orders (1-2 min)
-                    return order;
-                }
-            }
-        }
+    private BaristaState toState(Barista barista) {
+        double workload = workSlots.effectiveWorkload(barista);
+        return new BaristaState(barista.getId(), barista.getName(), (int) Math.round(workload),
+                barista.getStatus() == Barista.BaristaStatus.AVAILABLE ? 0.0 : workload);
+    }
 
-        // RULE 3: If barista is underutilized (<0.8x average), can take complex orders
-        if (workloadRatio < 0.8) {
-            log.debug("Barista {} is underutilized ({}x), can take complex orders",
-                    barista.getName(), String.format("%.2f", workloadRatio));
-        }
+    private record Selection(Order order, String rule) {
+    }
 
-        // RULE 4: Default - return highest priority order
-        return orders.get(0);
+    /**
+     * Record the assignment decision as a JFR event (no-op unless a recording is running)
+     */
+    private void recordDecision(AssignmentDecisionEvent event, Barista barista, List<Order> candidates,
+            double avgWorkload, Selection selection, BatchPlanner.Batch batch) {
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.baristaId = barista.getId();
+        event.baristaName = barista.getName();
+        event.baristaWorkload = barista.getCurrentWorkload();
+        event.averageWorkload = avgWorkload;
+        event.workloadRatio = barista.getCurrentWorkload() / Math.max(avgWorkload, 1.0);
+        event.candidateCount = candidates.size();
+        event.emergencyCandidates = (int) candidates.stream().filter(Order::isEmergencyFlag).count();
+        event.topCandidateOrderNumber = candidates.isEmpty() ? null : candidates.get(0).getOrderNumber();
+        event.rule = selection != null ? selection.rule() : "NONE";
+        if (selection != null) {
+            Order order = selection.order();
+            event.selectedOrderNumber = order.getOrderNumber();
+            event.selectedPriority = order.getPriorityScore().doubleValue();
+            event.selectedPrepTime = order.getEstimatedPrepTime();
+            event.selectedWaitMinutes = order.getCurrentWaitMinutes();
+            event.batchSize = batch != null ? batch.orders().size() : 1;
+        }
+        event.commit();
     }
 
     /**
@@ -195,7 +302,8 @@ public class PriorityQueueService {
     }
 
     /**
-     * Complete an order and update barista availability
+     * Complete an order reported done by its barista and update barista availability.
+     * The real prep duration feeds PrepTimeEstimator.
      */
     @Transactional
     public void completeOrder(Long orderId) {
@@ -206,30 +314,50 @@ public class PriorityQueueService {
         }
 
         Order order = orderOpt.get();
+        boolean inProgress = order.getStatus() == Order.OrderStatus.IN_PROGRESS;
+        finishOrder(order);
+        if (inProgress) {
+            prepTimeEstimator.record(order);
+        }
+    }
+
+    /**
+     * Complete a loaded in-progress order whose estimate has run out (completion
+     * timers, the COMPLETE stage). It took at least that long, which
+     * PrepTimeEstimator learns as a lower bound.
+     */
+    @Transactional
+    public void autoCompleteOrder(Order order) {
+        finishOrder(order);
+        prepTimeEstimator.recordAtLeast(order);
+    }
+
+    /**
+     * Mark a loaded in-progress order as completed, release its barista's workload
+     * and free its work slot (once the whole batch is done)
+     */
+    @Transactional
+    public void finishOrder(Order order) {
         Barista barista = order.getBarista();
 
         // Update order
         order.setStatus(Order.OrderStatus.COMPLETED);
         order.setCompletionTime(LocalDateTime.now());
         order.setWaitTimeMinutes(order.getCurrentWaitMinutes());
+        orderRepository.save(order);
 
-        // Update barista
+        // Update barista (a batch's workload is released once, with its lead)
         if (barista != null) {
-            barista.setCurrentWorkload(
-                    Math.max(0, barista.getCurrentWorkload() - order.getEstimatedPrepTime()));
-            barista.setTotalOrdersServed(barista.getTotalOrdersServed() + 1);
-
-            // Check if barista has more work
-            List<Order> activeOrders = orderRepository.findActiveOrdersByBarista(barista.getId());
-            if (activeOrders.size() <= 1) { // Only this order
-                barista.setStatus(Barista.BaristaStatus.AVAILABLE);
+            if (order.isBatchLead()) {
+                barista.setCurrentWorkload(
+                        Math.max(0, barista.getCurrentWorkload() - order.getEstimatedPrepTime()));
             }
+            barista.setTotalOrdersServed(barista.getTotalOrdersServed() + 1);
 
+            workSlots.refreshStatus(barista);
             baristaRepository.save(barista);
         }
 
-        orderRepository.save(order);
-
         log.info("Completed order {} (wait time: {} min)",
                 order.getOrderNumber(), order.getWaitTimeMinutes());
     }
@@ -259,14 +387,17 @@ public class PriorityQueueService {
     }
 
     /**
-     * Simulation helper: Assign orders to all available baristas
+     * Simulation helper: Fill every free work slot of all available baristas
      */
     @Transactional
     public void assignOrdersToAvailableBaristas() {
         List<Barista> baristas = baristaRepository.findAll();
         for (Barista barista : baristas) {
-            if (barista.getStatus() == Barista.BaristaStatus.AVAILABLE) {
-                assignNextOrder(barista.getId());
+            for (int slot = 0; slot < workSlots.slotsOf(barista)
+                    && barista.getStatus() == Barista.BaristaStatus.AVAILABLE; slot++) {
+                if (assignNextOrder(barista.getId()).isEmpty()) {
+                    break;
+                }
             }
         }
     }
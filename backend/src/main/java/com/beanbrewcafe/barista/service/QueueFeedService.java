@@ -0,0 +1,158 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.QueueDelta;
+import com.beanbrewcafe.barista.dto.QueueFeedEntry;
+import com.beanbrewcafe.barista.dto.QueueFeedSnapshot;
+import com.beanbrewcafe.barista.event.PendingQueueChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Queue Feed Service
+ * Sequenced delta protocol for the live pending queue
+ *
+ * PROTOCOL:
+ * 1. Client fetches a snapshot (epoch, sequence N, ordered entries)
+ * 2. Client applies /user/queue/queue-feed deltas with sequence N+1, N+2, ...
+ * 3. On a gap, reconnect or epoch change the client asks for deltas after its
+ *    last sequence; if they are no longer retained it takes a fresh snapshot
+ *
+ * Each delta carries one INSERT/REMOVE/MOVE/FIELD change with list indexes, so
+ * its size does not grow with the queue. The queue itself lives in
+ * QueuePositionIndex: deltas come from its PendingQueueChangedEvents and
+ * snapshots are read under its lock, so both agree on every index. The epoch
+ * changes on every restart because sequences are not persisted. Deltas are never
+ * conflated; a session that falls too far behind receives a RESYNC control
+ * message from the fan-out layer.
+ */
+@Service
+@Slf4j
+public class QueueFeedService {
+
+    public static final String FEED_CHANNEL = "queue-feed";
+
+    private final QueuePositionIndex queuePositionIndex;
+    private final WebSocketFanoutService fanoutService;
+    private final int historySize;
+    private final long epoch = System.currentTimeMillis();
+
+    private final Deque<QueueDelta> history = new ArrayDeque<>();
+    private long sequence;
+
+    public QueueFeedService(QueuePositionIndex queuePositionIndex,
+            WebSocketFanoutService fanoutService,
+            @Value("${queue-feed.history-size:1024}") int historySize) {
+        this.queuePositionIndex = queuePositionIndex;
+        this.fanoutService = fanoutService;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Published synchronously under the index's write lock, in the order changes were applied
+     */
+    @EventListener
+    public synchronized void onPendingQueueChanged(PendingQueueChangedEvent event) {
+        QueueDelta delta = toDelta(event);
+        if (delta == null) {
+            return;
+        }
+        history.addLast(delta);
+        while (history.size() > historySize) {
+            history.removeFirst();
+        }
+        try {
+            // Queued under the lock so subscribers see deltas in sequence order
+            fanoutService.broadcast(FEED_CHANNEL, null, delta);
+        } catch (RuntimeException e) {
+            // Push is best-effort; clients that miss a delta catch up from history or a snapshot
+            log.warn("Failed to publish queue feed delta {}: {}", delta.sequence(), e.getMessage());
+        }
+    }
+
+    public QueueFeedSnapshot getSnapshot() {
+        // Index lock first, then this: the same order in which deltas are produced
+        return queuePositionIndex.readPendingQueue(pending -> {
+            synchronized (this) {
+                return new QueueFeedSnapshot(epoch, sequence, pending.stream().map(QueueFeedEntry::of).toList());
+            }
+        });
+    }
+
+    /**
+     * Deltas after the given sequence, or empty if the client must resync from a snapshot
+     * (different epoch, or the requested range has already been evicted)
+     */
+    public synchronized Optional<List<QueueDelta>> getDeltasAfter(long clientEpoch, long afterSequence) {
+        if (clientEpoch != epoch || afterSequence > sequence) {
+            return Optional.empty();
+        }
+        long oldestRetained = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (afterSequence + 1 < oldestRetained) {
+            return Optional.empty();
+        }
+        return Optional.of(history.stream()
+                .filter(delta -> delta.sequence() > afterSequence)
+                .toList());
+    }
+
+    private QueueDelta toDelta(PendingQueueChangedEvent event) {
+        long orderId = event.orderId();
+        if (event.previous() == null) {
+            return new QueueDelta(epoch, ++sequence, QueueDelta.Op.INSERT, orderId,
+                    event.toIndex(), null, QueueFeedEntry.of(event.current()), null);
+        }
+        if (event.current() == null) {
+            return new QueueDelta(epoch, ++sequence, QueueDelta.Op.REMOVE, orderId,
+                    event.fromIndex(), null, null, null);
+        }
+
+        Map<String, Object> fields = changedFields(QueueFeedEntry.of(event.previous()),
+                QueueFeedEntry.of(event.current()));
+        if (fields.isEmpty()) {
+            return null;
+        }
+        if (event.fromIndex().equals(event.toIndex())) {
+            return new QueueDelta(epoch, ++sequence, QueueDelta.Op.FIELD, orderId,
+                    event.toIndex(), null, null, fields);
+        }
+        return new QueueDelta(epoch, ++sequence, QueueDelta.Op.MOVE, orderId,
+                event.toIndex(), event.fromIndex(), null, fields);
+    }
+
+    private static Map<String, Object> changedFields(QueueFeedEntry previous, QueueFeedEntry current) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (!sameScore(previous, current)) {
+            fields.put("priorityScore", current.priorityScore());
+        }
+        if (previous.emergencyFlag() != current.emergencyFlag()) {
+            fields.put("emergencyFlag", current.emergencyFlag());
+        }
+        if (previous.quantity() != current.quantity()) {
+            fields.put("quantity", current.quantity());
+        }
+        if (!Objects.equals(previous.drinkName(), current.drinkName())) {
+            fields.put("drinkName", current.drinkName());
+        }
+        if (!Objects.equals(previous.orderTime(), current.orderTime())) {
+            fields.put("orderTime", current.orderTime());
+        }
+        return fields;
+    }
+
+    private static boolean sameScore(QueueFeedEntry previous, QueueFeedEntry current) {
+        if (previous.priorityScore() == null || current.priorityScore() == null) {
+            return previous.priorityScore() == current.priorityScore();
+        }
+        return previous.priorityScore().compareTo(current.priorityScore()) == 0;
+    }
+}
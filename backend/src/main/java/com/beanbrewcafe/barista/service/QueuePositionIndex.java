@@ -0,0 +1,312 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.BaristaChangedEvent;
+import com.beanbrewcafe.barista.event.BaristaSnapshot;
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.beanbrewcafe.barista.event.PendingQueueChangedEvent;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.BaristaRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.util.OrderStatisticTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Queue Position Index
+ * In-memory, rank-augmented view of the live queue for position and ETA lookups
+ *
+ * Pending orders are kept in an order-statistic tree using the same ordering as
+ * findPendingOrdersByPriority (priority desc, order time asc), weighted by prep
+ * minutes. "Position of order X" and "prep minutes ahead of X" are O(log n)
+ * and never touch the database, so customers can poll it freely.
+ *
+ * The index is loaded once at startup and then kept in sync from committed
+ * order/barista change events. Every change to the pending queue is republished
+ * as a PendingQueueChangedEvent with its before/after index, so consumers such as
+ * the queue feed need no ordered copy of their own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueuePositionIndex {
+
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkSlots workSlots;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OrderStatisticTree<QueueKey> pendingTree = new OrderStatisticTree<>();
+    private final Map<Long, QueueKey> pendingKeys = new HashMap<>();
+    private final Map<Long, OrderSnapshot> trackedOrders = new HashMap<>();
+    private final Map<Long, BaristaSnapshot> baristas = new HashMap<>();
+
+    /**
+     * Load the current queue from the database
+     *
+     * The write lock is taken before querying: a change committed meanwhile has its
+     * event block on the lock and apply on top of the loaded state, instead of being
+     * applied first and then wiped by the clear.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Order> pending;
+        List<Order> inProgress;
+        List<BaristaSnapshot> allBaristas;
+        lock.writeLock().lock();
+        try {
+            pending = orderRepository.findByStatus(Order.OrderStatus.PENDING);
+            inProgress = orderRepository.findByStatus(Order.OrderStatus.IN_PROGRESS);
+            allBaristas = baristaRepository.findAll().stream()
+                    .map(BaristaSnapshot::of)
+                    .toList();
+
+            pendingTree.clear();
+            pendingKeys.clear();
+            trackedOrders.clear();
+            baristas.clear();
+            pending.forEach(order -> track(OrderSnapshot.of(order)));
+            inProgress.forEach(order -> track(OrderSnapshot.of(order)));
+            allBaristas.forEach(barista -> baristas.put(barista.id(), barista));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Queue position index loaded: {} pending, {} in progress, {} baristas",
+                pending.size(), inProgress.size(), allBaristas.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        Long orderId = event.current().id();
+        lock.writeLock().lock();
+        try {
+            OrderSnapshot previous = pendingKeys.containsKey(orderId) ? trackedOrders.get(orderId) : null;
+            Integer fromIndex = pendingIndex(orderId);
+            untrack(orderId);
+            if (event.type() != ChangeType.DELETED) {
+                track(event.current());
+            }
+            Integer toIndex = pendingIndex(orderId);
+            if (fromIndex != null || toIndex != null) {
+                // Synchronous listeners run under the write lock, so they see changes in order
+                eventPublisher.publishEvent(new PendingQueueChangedEvent(previous,
+                        toIndex != null ? event.current() : null, fromIndex, toIndex));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaristaChanged(BaristaChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.type() == ChangeType.DELETED) {
+                baristas.remove(event.current().id());
+            } else {
+                baristas.put(event.current().id(), event.current());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get queue position and ETA for a pending or in-progress order
+     *
+     * ETA = (active barista backlog + prep minutes queued ahead) / active work slots
+     * + this order's own prep time (each barista overlaps work-slots prep runs, see WorkSlots)
+     */
+    public Optional<QueuePosition> getPosition(Long orderId) {
+        lock.readLock().lock();
+        try {
+            OrderSnapshot order = trackedOrders.get(orderId);
+            if (order == null) {
+                return Optional.empty();
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            int prepTime = order.estimatedPrepTime();
+
+            if (order.status() == Order.OrderStatus.IN_PROGRESS) {
+                long elapsed = order.assignedTime() != null
+                        ? Duration.between(order.assignedTime(), now).toMinutes()
+                        : 0;
+                int remaining = (int) Math.max(prepTime - elapsed, 0);
+                return Optional.of(new QueuePosition(order.id(), order.orderNumber(), order.status().name(),
+                        0, 0, 0, activeBaristaCount(), remaining, now.plusMinutes(remaining)));
+            }
+
+            QueueKey key = pendingKeys.get(orderId);
+            int ordersAhead = pendingTree.rank(key);
+            long prepAhead = pendingTree.weightBefore(key);
+            int activeBaristas = activeBaristaCount();
+            long backlog = activeBacklogMinutes();
+
+            int waitMinutes = (int) Math.ceil((double) (backlog + prepAhead) / Math.max(activeSlotCount(), 1));
+            int etaMinutes = waitMinutes + prepTime;
+
+            return Optional.of(new QueuePosition(order.id(), order.orderNumber(), order.status().name(),
+                    ordersAhead + 1, ordersAhead, prepAhead, activeBaristas, etaMinutes,
+                    now.plusMinutes(etaMinutes)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current queue load: everything a newly placed order would have to wait behind
+     */
+    public QueueLoad getLoad() {
+        lock.readLock().lock();
+        try {
+            return new QueueLoad(pendingTree.size(), pendingTree.totalWeight(),
+                    activeBacklogMinutes(), activeBaristaCount(), activeSlotCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply {@code reader} to the pending orders in queue order. No change can be
+     * applied (or published) meanwhile, so the result is consistent with every
+     * PendingQueueChangedEvent published so far.
+     */
+    public <T> T readPendingQueue(Function<List<OrderSnapshot>, T> reader) {
+        lock.readLock().lock();
+        try {
+            List<OrderSnapshot> pending = pendingTree.toList().stream()
+                    .map(key -> trackedOrders.get(key.orderId()))
+                    .toList();
+            return reader.apply(pending);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.readLock().lock();
+        try {
+            return pendingTree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void track(OrderSnapshot order) {
+        if (order.status() == Order.OrderStatus.PENDING) {
+            QueueKey key = QueueKey.of(order);
+            pendingTree.insert(key, order.estimatedPrepTime());
+            pendingKeys.put(order.id(), key);
+            trackedOrders.put(order.id(), order);
+        } else if (order.status() == Order.OrderStatus.IN_PROGRESS) {
+            trackedOrders.put(order.id(), order);
+        }
+    }
+
+    private void untrack(Long orderId) {
+        QueueKey key = pendingKeys.remove(orderId);
+        if (key != null) {
+            pendingTree.remove(key);
+        }
+        trackedOrders.remove(orderId);
+    }
+
+    private Integer pendingIndex(Long orderId) {
+        QueueKey key = pendingKeys.get(orderId);
+        return key != null ? pendingTree.rank(key) : null;
+    }
+
+    private int activeBaristaCount() {
+        return (int) baristas.values().stream().filter(BaristaSnapshot::isActive).count();
+    }
+
+    private int activeSlotCount() {
+        return baristas.values().stream()
+                .filter(BaristaSnapshot::isActive)
+                .mapToInt(workSlots::slotsOf)
+                .sum();
+    }
+
+    private long activeBacklogMinutes() {
+        return baristas.values().stream()
+                .filter(BaristaSnapshot::isActive)
+                .mapToLong(BaristaSnapshot::currentWorkload)
+                .sum();
+    }
+
+    /**
+     * Sort key matching findPendingOrdersByPriority: priority desc, order time asc, id as tie-breaker
+     */
+    record QueueKey(BigDecimal priorityScore, LocalDateTime orderTime, long orderId)
+            implements Comparable<QueueKey> {
+
+        static QueueKey of(OrderSnapshot order) {
+            return new QueueKey(
+                    order.priorityScore() != null ? order.priorityScore() : BigDecimal.ZERO,
+                    order.orderTime() != null ? order.orderTime() : LocalDateTime.MIN,
+                    order.id());
+        }
+
+        @Override
+        public int compareTo(QueueKey other) {
+            int cmp = other.priorityScore.compareTo(priorityScore);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = orderTime.compareTo(other.orderTime);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Long.compare(orderId, other.orderId);
+        }
+    }
+
+    public record QueueLoad(int pendingOrders, long pendingPrepMinutes, long backlogMinutes, int activeBaristas,
+            int activeSlots) {
+
+        /**
+         * Projected wait (order to completion) for a new order joining the back of the
+         * queue, using the same formula as getPosition; empty if no barista is active
+         */
+        public OptionalInt projectedWaitMinutes(int prepMinutes) {
+            if (activeBaristas == 0) {
+                return OptionalInt.empty();
+            }
+            return OptionalInt.of((int) Math.ceil((double) (backlogMinutes + pendingPrepMinutes)
+                    / Math.max(activeSlots, 1)) + prepMinutes);
+        }
+    }
+
+    public record QueuePosition(
+            Long orderId,
+            String orderNumber,
+            String status,
+            int position,
+            int ordersAhead,
+            long prepMinutesAhead,
+            int activeBaristas,
+            int estimatedWaitMinutes,
+            LocalDateTime estimatedReadyTime) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderResponse;
+import com.beanbrewcafe.barista.dto.QueueUpdateMessage;
+import com.beanbrewcafe.barista.dto.QueueUpdateMessage.UpdateType;
+import com.beanbrewcafe.barista.event.BaristaChangedEvent;
+import com.beanbrewcafe.barista.event.BaristaSnapshot;
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.event.OrderSnapshot;
+import com.beanbrewcafe.barista.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Queue Update Publisher
+ * Pushes committed order and barista changes to STOMP subscribers
+ *
+ * CHANNELS (subscribe to /user/queue/{channel}):
+ * - orders   : CREATED, ASSIGNED, COMPLETED, CANCELLED, ESCALATED, REPRIORITIZED
+ * - baristas : STATUS_CHANGED, UPDATED (workload/served counters), CREATED, DELETED
+ *
+ * Updates are conflated per order/barista by the fan-out layer, since each
+ * message carries the full current state.
+ *
+ * Dashboards subscribe once instead of polling, so server work scales with
+ * the number of changes rather than poll frequency x open screens.
+ */
+@Service
+@RequiredArgsConstructor
+public class QueueUpdatePublisher {
+
+    public static final String ORDERS_CHANNEL = "orders";
+    public static final String BARISTAS_CHANNEL = "baristas";
+
+    private final WebSocketFanoutService fanoutService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        UpdateType type = classify(event);
+        if (type == null) {
+            return;
+        }
+        fanoutService.broadcast(ORDERS_CHANNEL, "order:" + event.current().id(),
+                new QueueUpdateMessage<>(type, OrderResponse.fromSnapshot(event.current()), System.currentTimeMillis()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaristaChanged(BaristaChangedEvent event) {
+        UpdateType type = switch (event.type()) {
+            case CREATED -> UpdateType.CREATED;
+            case DELETED -> UpdateType.DELETED;
+            case UPDATED -> event.statusChanged() ? UpdateType.STATUS_CHANGED : UpdateType.UPDATED;
+        };
+        if (type == UpdateType.UPDATED && sameVisibleState(event.previous(), event.current())) {
+            return;
+        }
+        fanoutService.broadcast(BARISTAS_CHANNEL, "barista:" + event.current().id(),
+                new QueueUpdateMessage<>(type, event.current(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Map a raw entity change to the queue transition dashboards care about.
+     * Returns null for writes that change nothing visible (e.g. updated_at only).
+     */
+    static UpdateType classify(OrderChangedEvent event) {
+        OrderSnapshot current = event.current();
+        OrderSnapshot previous = event.previous();
+
+        if (event.type() == ChangeType.CREATED) {
+            return UpdateType.CREATED;
+        }
+        if (event.type() == ChangeType.DELETED) {
+            return UpdateType.DELETED;
+        }
+        if (event.statusChanged()) {
+            return switch (current.status()) {
+                case IN_PROGRESS -> UpdateType.ASSIGNED;
+                case COMPLETED -> UpdateType.COMPLETED;
+                case CANCELLED -> UpdateType.CANCELLED;
+                case PENDING -> UpdateType.UPDATED;
+            };
+        }
+        if (current.status() == Order.OrderStatus.PENDING && current.emergencyFlag() && !previous.emergencyFlag()) {
+            return UpdateType.ESCALATED;
+        }
+        if (!sameScore(previous, current)) {
+            return UpdateType.REPRIORITIZED;
+        }
+        if (!Objects.equals(previous.baristaId(), current.baristaId())
+                || previous.quantity() != current.quantity()) {
+            return UpdateType.UPDATED;
+        }
+        return null;
+    }
+
+    private static boolean sameScore(OrderSnapshot previous, OrderSnapshot current) {
+        if (previous.priorityScore() == null || current.priorityScore() == null) {
+            return previous.priorityScore() == current.priorityScore();
+        }
+        return previous.priorityScore().compareTo(current.priorityScore()) == 0;
+    }
+
+    private static boolean sameVisibleState(BaristaSnapshot previous, BaristaSnapshot current) {
+        return previous != null
+                && previous.currentWorkload() == current.currentWorkload()
+                && previous.totalOrdersServed() == current.totalOrdersServed()
+                && Objects.equals(previous.name(), current.name());
+    }
+}
@@ -0,0 +1,90 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderFact;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.model.PriorityFormula;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mergeable partial result of a report scan.
+ * Each fork-join leaf fills one accumulator for its chunk; accumulators are
+ * then merged pairwise, so no step ever needs the full order history.
+ */
+class ReportAccumulator {
+
+    long totalOrders;
+    long completedOrders;
+    long cancelledOrders;
+    long timeoutOrders;
+    long waitMinutesSum;
+    long waitSamples;
+    int chunks;
+
+    final Map<LocalDateTime, Long> ordersByHour = new HashMap<>();
+    final Map<LocalDateTime, Long> throughputByHour = new HashMap<>();
+    final Map<String, Long> baristaBusyMinutes = new HashMap<>();
+    final Map<String, Long> baristaOrdersServed = new HashMap<>();
+    final Map<LocalDate, Map<String, Long>> drinkMixByDay = new HashMap<>();
+
+    void add(OrderFact fact) {
+        totalOrders++;
+        ordersByHour.merge(fact.orderTime().truncatedTo(ChronoUnit.HOURS), 1L, Long::sum);
+        drinkMixByDay.computeIfAbsent(fact.orderTime().toLocalDate(), day -> new HashMap<>())
+                .merge(fact.drinkName(), (long) fact.quantity(), Long::sum);
+
+        if (fact.status() == Order.OrderStatus.CANCELLED) {
+            cancelledOrders++;
+            return;
+        }
+        if (fact.status() != Order.OrderStatus.COMPLETED || fact.completionTime() == null) {
+            return;
+        }
+
+        completedOrders++;
+        throughputByHour.merge(fact.completionTime().truncatedTo(ChronoUnit.HOURS), 1L, Long::sum);
+
+        int waitMinutes = fact.waitTimeMinutes() != null
+                ? fact.waitTimeMinutes()
+                : (int) Duration.between(fact.orderTime(), fact.completionTime()).toMinutes();
+        waitMinutesSum += Math.max(waitMinutes, 0);
+        waitSamples++;
+        if (waitMinutes > PriorityFormula.MAX_WAIT_MINUTES) {
+            timeoutOrders++;
+        }
+
+        if (fact.baristaName() != null) {
+            long busyMinutes = fact.assignedTime() != null
+                    ? Math.max(Duration.between(fact.assignedTime(), fact.completionTime()).toMinutes(), 0)
+                    : (long) (fact.drinkPrepTime() != null ? fact.drinkPrepTime() : 0)
+                            * (fact.quantity() != null ? fact.quantity() : 1);
+            baristaBusyMinutes.merge(fact.baristaName(), busyMinutes, Long::sum);
+            baristaOrdersServed.merge(fact.baristaName(), 1L, Long::sum);
+        }
+    }
+
+    ReportAccumulator merge(ReportAccumulator other) {
+        totalOrders += other.totalOrders;
+        completedOrders += other.completedOrders;
+        cancelledOrders += other.cancelledOrders;
+        timeoutOrders += other.timeoutOrders;
+        waitMinutesSum += other.waitMinutesSum;
+        waitSamples += other.waitSamples;
+        chunks += other.chunks;
+
+        other.ordersByHour.forEach((hour, count) -> ordersByHour.merge(hour, count, Long::sum));
+        other.throughputByHour.forEach((hour, count) -> throughputByHour.merge(hour, count, Long::sum));
+        other.baristaBusyMinutes.forEach((name, minutes) -> baristaBusyMinutes.merge(name, minutes, Long::sum));
+        other.baristaOrdersServed.forEach((name, count) -> baristaOrdersServed.merge(name, count, Long::sum));
+        other.drinkMixByDay.forEach((day, mix) -> {
+            Map<String, Long> target = drinkMixByDay.computeIfAbsent(day, d -> new HashMap<>());
+            mix.forEach((drink, count) -> target.merge(drink, count, Long::sum));
+        });
+        return this;
+    }
+}
@@ -0,0 +1,186 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.AnalyticsReport;
+import com.beanbrewcafe.barista.dto.OrderFact;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Report Service
+ * Daily/weekly historical analytics computed with fork-join
+ *
+ * ALGORITHM:
+ * 1. Split the requested time range in half until each piece is at most one chunk
+ * 2. Each leaf streams its chunk's rows from the DB and folds them into a ReportAccumulator
+ * 3. Sibling accumulators are merged on the way back up
+ *
+ * Memory is bounded by (parallelism x chunk size) rows rather than the whole range.
+ * Each leaf holds a DB connection while it streams, so parallelism is capped at
+ * half the Hikari pool and report requests can never starve request threads of
+ * connections. Leaves block on JDBC without a ManagedBlocker on purpose: a
+ * compensating worker would just open another connection past that cap.
+ */
+@Service
+@Slf4j
+public class ReportService {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool reportPool;
+    private final Duration chunkSize;
+
+    public ReportService(OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${reports.parallelism:0}") int parallelism,
+            @Value("${reports.chunk-hours:6}") int chunkHours,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        int connectionCap = Math.max(connectionPoolSize / 2, 1);
+        if (requested > connectionCap) {
+            log.info("Report parallelism capped at {} (half of {} pooled connections)", connectionCap, connectionPoolSize);
+        }
+        this.reportPool = new ForkJoinPool(Math.min(requested, connectionCap));
+        this.chunkSize = Duration.ofHours(Math.max(chunkHours, 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reportPool.shutdown();
+    }
+
+    /**
+     * Report for a single calendar day
+     */
+    public AnalyticsReport getDailyReport(LocalDate date) {
+        return buildReport("DAILY", date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Report for the Monday-to-Sunday week containing the given date
+     */
+    public AnalyticsReport getWeeklyReport(LocalDate date) {
+        LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return buildReport("WEEKLY", monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay());
+    }
+
+    /**
+     * Report for an arbitrary [from, to) range
+     */
+    public AnalyticsReport getRangeReport(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Report range end must be after start");
+        }
+        return buildReport("RANGE", from, to);
+    }
+
+    private AnalyticsReport buildReport(String period, LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        ReportAccumulator totals = reportPool.invoke(new ChunkTask(from, to));
+        long computeMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Built {} report for {} - {}: {} orders in {} chunks ({} ms)",
+                period, from, to, totals.totalOrders, totals.chunks, computeMillis);
+
+        return toReport(period, from, to, totals, computeMillis);
+    }
+
+    private AnalyticsReport toReport(String period, LocalDateTime from, LocalDateTime to,
+            ReportAccumulator totals, long computeMillis) {
+        AnalyticsReport report = new AnalyticsReport();
+        report.setPeriod(period);
+        report.setFrom(from);
+        report.setTo(to);
+        report.setTotalOrders(totals.totalOrders);
+        report.setCompletedOrders(totals.completedOrders);
+        report.setCancelledOrders(totals.cancelledOrders);
+        report.setTimeoutOrders(totals.timeoutOrders);
+        report.setTimeoutRate(totals.completedOrders == 0 ? 0.0
+                : round((double) totals.timeoutOrders / totals.completedOrders * 100));
+        report.setAvgWaitTime(totals.waitSamples == 0 ? 0.0
+                : round((double) totals.waitMinutesSum / totals.waitSamples));
+        report.setOrdersByHour(new TreeMap<>(totals.ordersByHour));
+        report.setThroughputByHour(new TreeMap<>(totals.throughputByHour));
+
+        // Utilization = busy minutes / minutes in the report window
+        double windowMinutes = Math.max(Duration.between(from, to).toMinutes(), 1);
+        Map<String, Double> utilization = new TreeMap<>();
+        totals.baristaBusyMinutes.forEach((name, busy) -> utilization.put(name, round(busy / windowMinutes * 100)));
+        report.setBaristaUtilization(utilization);
+        report.setBaristaOrdersServed(new TreeMap<>(totals.baristaOrdersServed));
+
+        Map<LocalDate, Map<String, Long>> drinkMix = new TreeMap<>();
+        totals.drinkMixByDay.forEach((day, mix) -> drinkMix.put(day, new TreeMap<>(mix)));
+        report.setDrinkMixByDay(drinkMix);
+
+        report.setChunksProcessed(totals.chunks);
+        report.setComputeMillis(computeMillis);
+        return report;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * Fork-join task over [from, to): splits until the range fits in one chunk,
+     * then streams that chunk from the DB
+     */
+    private class ChunkTask extends RecursiveTask<ReportAccumulator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        ChunkTask(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ReportAccumulator compute() {
+            Duration length = Duration.between(from, to);
+            if (length.compareTo(chunkSize) <= 0) {
+                return scanChunk();
+            }
+
+            LocalDateTime mid = from.plus(length.dividedBy(2));
+            ChunkTask left = new ChunkTask(from, mid);
+            ChunkTask right = new ChunkTask(mid, to);
+            left.fork();
+            ReportAccumulator rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        private ReportAccumulator scanChunk() {
+            ReportAccumulator accumulator = new ReportAccumulator();
+            accumulator.chunks = 1;
+            // Streaming queries need an open transaction for the lifetime of the cursor
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<OrderFact> facts = orderRepository.streamOrderFacts(from, to)) {
+                    facts.forEach(accumulator::add);
+                }
+            });
+            return accumulator;
+        }
+    }
+}
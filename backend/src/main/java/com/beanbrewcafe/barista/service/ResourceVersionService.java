@@ -0,0 +1,81 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.BaristaChangedEvent;
+import com.beanbrewcafe.barista.event.DrinkChangedEvent;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resource Version Service
+ * Monotonic version counters per resource family, used as strong ETags
+ *
+ * Counters are bumped after commit by the entity change events, so every write
+ * path is covered. The startup epoch is part of the tag because counters restart
+ * at zero. Controllers read the tag BEFORE querying: a write that races with the
+ * query can only make the tag older than the body, which costs one extra refetch
+ * but never serves stale data as current.
+ */
+@Service
+public class ResourceVersionService {
+
+    public enum Resource { ORDERS, BARISTAS, DRINKS }
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    public ResourceVersionService() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    /**
+     * Current strong ETag for a resource family.
+     * Order responses include a wait time derived from the clock, so their tag
+     * also rolls over every minute.
+     */
+    public String etag(Resource resource) {
+        return etag(resource, null);
+    }
+
+    /**
+     * ETag for one representation of a resource family (e.g. a binary or
+     * columnar encoding); strong tags must differ between representations
+     */
+    public String etag(Resource resource, String variant) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(resource.name().toLowerCase())
+                .append('-').append(Long.toString(epoch, 36))
+                .append('-').append(versions.get(resource).get());
+        if (resource == Resource.ORDERS) {
+            tag.append('-').append(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()));
+        }
+        if (variant != null) {
+            tag.append('-').append(variant);
+        }
+        return tag.append('"').toString();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        versions.get(Resource.ORDERS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBaristaChanged(BaristaChangedEvent event) {
+        versions.get(Resource.BARISTAS).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDrinkChanged(DrinkChangedEvent event) {
+        versions.get(Resource.DRINKS).incrementAndGet();
+        // Order responses embed drink names and prep times
+        versions.get(Resource.ORDERS).incrementAndGet();
+    }
+}
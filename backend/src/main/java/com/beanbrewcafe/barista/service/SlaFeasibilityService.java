@@ -0,0 +1,111 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.repository.BaristaRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.scheduler.policy.CandidateOrder;
+import com.beanbrewcafe.barista.scheduler.policy.EdfPolicy;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicies;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SLA Feasibility Service
+ * Checks whether the pending queue can still meet its deadlines (see EdfPolicy)
+ *
+ * The queue is projected twice onto the active baristas, each starting when
+ * their current work is done: once in the live policy's ranking and once as
+ * the EDF plan. The report says whether every order can be on time, which
+ * orders will miss regardless, and how many more orders EDF would get out on
+ * time than the current ranking.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlaFeasibilityService {
+
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final PrepTimeEstimator prepTimeEstimator;
+    private final WorkSlots workSlots;
+    private final EdfPolicy edfPolicy;
+    private final SchedulingPolicies schedulingPolicies;
+
+    /**
+     * @throws IllegalStateException when no barista is on shift
+     */
+    @Transactional(readOnly = true)
+    public FeasibilityReport check() {
+        double[] freeAt = baristaRepository.findAll().stream()
+                .filter(barista -> barista.getStatus() != Barista.BaristaStatus.OFFLINE)
+                .mapToDouble(barista -> barista.getStatus() == Barista.BaristaStatus.AVAILABLE
+                        ? 0.0 : workSlots.effectiveWorkload(barista))
+                .toArray();
+        if (freeAt.length == 0) {
+            throw new IllegalStateException("No active baristas to plan with");
+        }
+
+        List<CandidateOrder> candidates = new ArrayList<>();
+        for (Order order : orderRepository.findPendingOrdersByPriority()) {
+            candidates.add(CandidateOrder.of(order, prepTimeEstimator.estimate(order)));
+        }
+        SchedulingPolicy activePolicy = schedulingPolicies.active();
+        candidates.sort(Comparator.comparingDouble(activePolicy::priority).reversed());
+
+        LocalDateTime now = LocalDateTime.now();
+        EdfPolicy.Plan current = edfPolicy.evaluate(now, candidates, freeAt);
+        EdfPolicy.Plan edf = edfPolicy.plan(now, candidates, freeAt);
+
+        List<OrderFeasibility> orders = edf.orders().stream()
+                .map(planned -> new OrderFeasibility(planned.order().id(), planned.order().orderNumber(),
+                        planned.order().loyaltyStatus() != null ? planned.order().loyaltyStatus().name() : null,
+                        planned.order().prepMinutes(), planned.deadline(),
+                        now.plusSeconds(Math.round(planned.startInMinutes() * 60)),
+                        now.plusSeconds(Math.round(planned.readyInMinutes() * 60)),
+                        planned.outcome()))
+                .toList();
+        long hopeless = edf.countOf(EdfPolicy.Outcome.HOPELESS) + edf.countOf(EdfPolicy.Outcome.OVERDUE);
+        return new FeasibilityReport(now, activePolicy.name(), freeAt.length, candidates.size(),
+                edf.onTimeCount() == candidates.size(), current.onTimeCount(), edf.onTimeCount(), hopeless,
+                edf.countOf(EdfPolicy.Outcome.DEFERRED), orders);
+    }
+
+    public record OrderFeasibility(
+            Long orderId,
+            String orderNumber,
+            String loyaltyStatus,
+            int prepMinutes,
+            LocalDateTime deadline,
+            LocalDateTime projectedStart,
+            LocalDateTime projectedReady,
+            EdfPolicy.Outcome outcome) {
+    }
+
+    /**
+     * @param feasible         every pending order can still be ready by its deadline
+     * @param onTimeCurrent    orders on time if served in the live policy's ranking
+     * @param onTimeEdf        orders on time in the EDF plan
+     * @param missRegardless   hopeless or overdue orders, late whatever the order
+     * @param deferred         orders EDF gives up so that more others are on time
+     * @param orders           the EDF plan, in the order it would serve them
+     */
+    public record FeasibilityReport(
+            LocalDateTime checkedAt,
+            String activePolicy,
+            int activeBaristas,
+            int pendingOrders,
+            boolean feasible,
+            long onTimeCurrent,
+            long onTimeEdf,
+            long missRegardless,
+            long deferred,
+            List<OrderFeasibility> orders) {
+    }
+}
@@ -0,0 +1,289 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderFact;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.repository.DrinkRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Staffing Forecast Service
+ * Forecasts hourly arrival rates from order history and recommends how many
+ * baristas to staff so that few customers wait past the SLA
+ *
+ * ALGORITHM:
+ * 1. Stream the last history-weeks of customer orders (test orders excluded)
+ * 2. For the requested weekday, arrival rate per hour = orders in that hour /
+ *    (days of that weekday in the history x 60), and mean service time = the
+ *    learned prep-time estimate (PrepTimeEstimator) averaged over that hour's
+ *    drink mix and quantities
+ * 3. Model each hour as M/M/c with c baristas, each serving work-slots orders at
+ *    once, and compute the Erlang-C probability of queueing
+ * 4. Pick the smallest c with P(wait > threshold) <= target
+ *
+ * "Wait" means order to ready, as everywhere else in the system, so the queue
+ * may use threshold - mean prep minutes of it. Hours with no orders in the
+ * history count as closed. With no history for the weekday at all, every hour
+ * falls back to staffing.default-arrival-rate and the menu's frequency-weighted
+ * prep time.
+ *
+ * Today's plan is precomputed on staffing.plan-cron and at startup.
+ */
+@Service
+@Slf4j
+public class StaffingForecastService {
+
+    private final OrderRepository orderRepository;
+    private final DrinkRepository drinkRepository;
+    private final PrepTimeEstimator prepTimeEstimator;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int historyWeeks;
+    private final double defaultTarget;
+    private final int waitThresholdMinutes;
+    private final double defaultArrivalRate;
+    private final int maxBaristas;
+    private final int workSlots;
+
+    private volatile StaffingPlan dailyPlan;
+
+    public StaffingForecastService(OrderRepository orderRepository,
+            DrinkRepository drinkRepository,
+            PrepTimeEstimator prepTimeEstimator,
+            PlatformTransactionManager transactionManager,
+            @Value("${staffing.history-weeks:8}") int historyWeeks,
+            @Value("${staffing.target:0.1}") double defaultTarget,
+            @Value("${staffing.wait-threshold-minutes:10}") int waitThresholdMinutes,
+            @Value("${staffing.default-arrival-rate:1.4}") double defaultArrivalRate,
+            @Value("${staffing.max-baristas:20}") int maxBaristas,
+            @Value("${baristas.default-work-slots:1}") int workSlots) {
+        this.orderRepository = orderRepository;
+        this.drinkRepository = drinkRepository;
+        this.prepTimeEstimator = prepTimeEstimator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.historyWeeks = Math.max(historyWeeks, 1);
+        this.defaultTarget = defaultTarget;
+        this.waitThresholdMinutes = waitThresholdMinutes;
+        this.defaultArrivalRate = defaultArrivalRate;
+        this.maxBaristas = Math.max(maxBaristas, 1);
+        this.workSlots = Math.max(workSlots, 1);
+    }
+
+    /**
+     * Precomputed plan for today (recomputed if the day has rolled over)
+     */
+    public StaffingPlan getDailyPlan() {
+        StaffingPlan plan = dailyPlan;
+        if (plan == null || !plan.date().equals(LocalDate.now())) {
+            refreshDailyPlan();
+            plan = dailyPlan;
+        }
+        return plan;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${staffing.plan-cron:0 0 4 * * *}")
+    public void refreshDailyPlan() {
+        StaffingPlan plan = forecast(LocalDate.now(), defaultTarget);
+        dailyPlan = plan;
+        log.info("Staffing plan for {}: peak {} baristas, {} barista-hours",
+                plan.date(), plan.peakBaristas(), plan.baristaHours());
+    }
+
+    /**
+     * Forecast a day hour by hour
+     *
+     * @param target highest acceptable P(wait > threshold), null for staffing.target
+     */
+    public StaffingPlan forecast(LocalDate date, Double target) {
+        double maxProbability = target != null ? target : defaultTarget;
+        if (!(maxProbability > 0 && maxProbability < 1)) {
+            throw new IllegalArgumentException("target must be between 0 and 1");
+        }
+
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        LocalDate historyEnd = date.isAfter(LocalDate.now()) ? LocalDate.now() : date;
+        LocalDate historyStart = historyEnd.minusWeeks(historyWeeks);
+        History history = new History(dayOfWeek);
+        // Streaming queries need an open transaction for the lifetime of the cursor
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<OrderFact> facts = orderRepository.streamCustomerOrderFacts(
+                    historyStart.atStartOfDay(), historyEnd.atStartOfDay())) {
+                facts.forEach(history::add);
+            }
+        });
+
+        int observedDays = history.firstDate == null ? 0
+                : countWeekdays(dayOfWeek, history.firstDate.isAfter(historyStart) ? history.firstDate : historyStart,
+                        historyEnd);
+        double meanPrep = history.totalOrders > 0
+                ? history.totalPrepMinutes / history.totalOrders
+                : menuPrepMinutes();
+
+        List<HourForecast> hours = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            if (observedDays == 0) {
+                hours.add(staff(hour, Source.PRIOR, defaultArrivalRate, meanPrep, maxProbability));
+            } else if (history.orders[hour] == 0) {
+                hours.add(new HourForecast(hour, Source.CLOSED, 0.0, 0.0, 0.0, 0, 0.0, 0.0, 0.0, true));
+            } else {
+                double arrivalsPerMinute = history.orders[hour] / (observedDays * 60.0);
+                double hourPrep = history.prepMinutes[hour] / history.orders[hour];
+                hours.add(staff(hour, Source.HISTORY, arrivalsPerMinute, hourPrep, maxProbability));
+            }
+        }
+
+        int peak = hours.stream().mapToInt(HourForecast::recommendedBaristas).max().orElse(0);
+        int baristaHours = hours.stream().mapToInt(HourForecast::recommendedBaristas).sum();
+        return new StaffingPlan(date, dayOfWeek, maxProbability, waitThresholdMinutes, workSlots,
+                observedDays, peak, baristaHours, LocalDateTime.now(), hours);
+    }
+
+    /**
+     * Smallest barista count that keeps P(wait > threshold) within the target
+     * for one hour's arrival rate and mean prep time
+     */
+    private HourForecast staff(int hour, Source source, double arrivalsPerMinute, double prepMinutes,
+            double maxProbability) {
+        // Each barista overlaps work-slots prep runs, so serves that many at once
+        double serviceMinutes = prepMinutes / workSlots;
+        double offeredLoad = arrivalsPerMinute * serviceMinutes;
+        double queueBudget = Math.max(0.0, waitThresholdMinutes - prepMinutes);
+
+        int baristas = Math.max(1, (int) Math.floor(offeredLoad) + 1);
+        double probability = probabilityOfWaitOver(baristas, offeredLoad, serviceMinutes, queueBudget);
+        while (probability > maxProbability && baristas < maxBaristas) {
+            baristas++;
+            probability = probabilityOfWaitOver(baristas, offeredLoad, serviceMinutes, queueBudget);
+        }
+
+        double queueWait = erlangC(baristas, offeredLoad) * serviceMinutes / (baristas - offeredLoad);
+        return new HourForecast(hour, source, round(arrivalsPerMinute * 60), round(prepMinutes), round(offeredLoad),
+                baristas, round(offeredLoad / baristas), round(probability), round(queueWait),
+                probability <= maxProbability);
+    }
+
+    /**
+     * P(wait > threshold) = P(the queue wait exceeds its budget) for M/M/c
+     */
+    private static double probabilityOfWaitOver(int servers, double offeredLoad, double serviceMinutes,
+            double queueBudget) {
+        return erlangC(servers, offeredLoad) * Math.exp(-(servers - offeredLoad) * queueBudget / serviceMinutes);
+    }
+
+    /**
+     * Erlang C: probability an arrival has to queue, via the numerically stable
+     * Erlang B recursion (requires servers > offeredLoad)
+     */
+    private static double erlangC(int servers, double offeredLoad) {
+        double erlangB = 1.0;
+        for (int k = 1; k <= servers; k++) {
+            erlangB = offeredLoad * erlangB / (k + offeredLoad * erlangB);
+        }
+        return servers * erlangB / (servers - offeredLoad * (1 - erlangB));
+    }
+
+    /**
+     * Frequency-weighted prep time of one unit from the menu, for days without history
+     */
+    private double menuPrepMinutes() {
+        List<Drink> drinks = drinkRepository.findAll();
+        double totalWeight = drinks.stream().mapToDouble(drink -> drink.getFrequency().doubleValue()).sum();
+        if (totalWeight <= 0) {
+            return 1.0;
+        }
+        return drinks.stream()
+                .mapToDouble(drink -> drink.getFrequency().doubleValue()
+                        * prepTimeEstimator.estimateMinutes(drink.getId(), drink.getPrepTime(), 1))
+                .sum() / totalWeight;
+    }
+
+    private static int countWeekdays(DayOfWeek dayOfWeek, LocalDate from, LocalDate to) {
+        int days = 0;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == dayOfWeek) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * Per-hour order counts and prep minutes for one weekday, plus overall totals
+     */
+    private final class History {
+        final DayOfWeek dayOfWeek;
+        final long[] orders = new long[24];
+        final double[] prepMinutes = new double[24];
+        long totalOrders;
+        double totalPrepMinutes;
+        LocalDate firstDate;
+
+        History(DayOfWeek dayOfWeek) {
+            this.dayOfWeek = dayOfWeek;
+        }
+
+        void add(OrderFact fact) {
+            LocalDate date = fact.orderTime().toLocalDate();
+            if (firstDate == null || date.isBefore(firstDate)) {
+                firstDate = date;
+            }
+            double prep = prepTimeEstimator.estimateMinutes(fact.drinkId(),
+                    fact.drinkPrepTime() != null ? fact.drinkPrepTime() : 0,
+                    fact.quantity() != null ? fact.quantity() : 1);
+            totalOrders++;
+            totalPrepMinutes += prep;
+            if (date.getDayOfWeek() == dayOfWeek) {
+                int hour = fact.orderTime().getHour();
+                orders[hour]++;
+                prepMinutes[hour] += prep;
+            }
+        }
+    }
+
+    public enum Source { HISTORY, PRIOR, CLOSED }
+
+    public record HourForecast(
+            int hour,
+            Source source,
+            double arrivalsPerHour,
+            double meanPrepMinutes,
+            double offeredLoad,
+            int recommendedBaristas,
+            double utilization,
+            double probabilityWaitOverThreshold,
+            double expectedQueueWaitMinutes,
+            boolean targetMet) {
+    }
+
+    public record StaffingPlan(
+            LocalDate date,
+            DayOfWeek dayOfWeek,
+            double target,
+            int waitThresholdMinutes,
+            int workSlotsPerBarista,
+            int historyDays,
+            int peakBaristas,
+            int baristaHours,
+            LocalDateTime computedAt,
+            List<HourForecast> hours) {
+    }
+}
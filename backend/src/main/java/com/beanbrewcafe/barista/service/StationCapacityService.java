@@ -0,0 +1,405 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.ChangeType;
+import com.beanbrewcafe.barista.event.DrinkChangedEvent;
+import com.beanbrewcafe.barista.event.OrderChangedEvent;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Drink;
+import com.beanbrewcafe.barista.model.DrinkStation;
+import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.model.Station;
+import com.beanbrewcafe.barista.repository.BaristaRepository;
+import com.beanbrewcafe.barista.repository.DrinkRepository;
+import com.beanbrewcafe.barista.repository.DrinkStationRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.repository.StationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Station Capacity Service
+ * Schedules assignments against shared equipment as well as baristas
+ *
+ * Each drink declares the stations its recipe occupies (drink_stations) and each
+ * station declares how many drinks it can work on at once (stations.capacity).
+ * Every unit of every station has a "free at" time; assigning an order reserves
+ * the earliest free unit of each recipe step in sequence, and completing or
+ * cancelling it releases what is left of its reservations.
+ *
+ * The assignment engine only hands out orders whose first station can start
+ * within the configured tolerance (emergencies excepted), so baristas are not
+ * given work that would just queue at the machine. Reservations live in memory
+ * and are rebuilt from in-progress orders at startup. A reservation made inside
+ * a transaction takes effect at once, so later assignments in the same tick see
+ * it, and is rolled back (newest first) if that transaction does not commit.
+ */
+@Service
+@Slf4j
+public class StationCapacityService {
+
+    private final StationRepository stationRepository;
+    private final DrinkStationRepository drinkStationRepository;
+    private final DrinkRepository drinkRepository;
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final BatchPlanner batchPlanner;
+    private final boolean enabled;
+    private final long startToleranceMillis;
+
+    // All guarded by this
+    private final Map<Long, StationState> stations = new LinkedHashMap<>();
+    private final Map<Long, List<Step>> recipes = new HashMap<>();
+    private final Map<Long, Drink> drinks = new HashMap<>();
+    private final Map<Long, List<Reservation>> reservations = new HashMap<>();
+
+    // Transaction resource key for the reservations the current transaction has made
+    private final Object pendingReservationsKey = new Object();
+
+    public StationCapacityService(StationRepository stationRepository,
+            DrinkStationRepository drinkStationRepository,
+            DrinkRepository drinkRepository,
+            OrderRepository orderRepository,
+            BaristaRepository baristaRepository,
+            BatchPlanner batchPlanner,
+            @Value("${stations.enabled:true}") boolean enabled,
+            @Value("${stations.start-tolerance-minutes:1}") int startToleranceMinutes) {
+        this.stationRepository = stationRepository;
+        this.drinkStationRepository = drinkStationRepository;
+        this.drinkRepository = drinkRepository;
+        this.orderRepository = orderRepository;
+        this.baristaRepository = baristaRepository;
+        this.batchPlanner = batchPlanner;
+        this.enabled = enabled;
+        this.startToleranceMillis = startToleranceMinutes * 60_000L;
+    }
+
+    /**
+     * Load stations and recipes, then re-reserve for every in-progress batch
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        stations.clear();
+        recipes.clear();
+        drinks.clear();
+        reservations.clear();
+
+        for (Station station : stationRepository.findAll()) {
+            stations.put(station.getId(), new StationState(station.getId(), station.getName(),
+                    new long[Math.max(station.getCapacity(), 1)]));
+        }
+        for (DrinkStation step : drinkStationRepository.findAllWithDrinkAndStation()) {
+            recipes.computeIfAbsent(step.getDrink().getId(), id -> new ArrayList<>())
+                    .add(new Step(step.getStation().getId(), step.getMinutes()));
+        }
+        for (Drink drink : drinkRepository.findAll()) {
+            drinks.put(drink.getId(), drink);
+        }
+
+        // Batch members share their lead's reservation
+        Map<String, List<Order>> batches = orderRepository.findByStatus(Order.OrderStatus.IN_PROGRESS).stream()
+                .filter(order -> order.getAssignedTime() != null)
+                .collect(Collectors.groupingBy(
+                        order -> order.getBatchId() != null ? order.getBatchId() : order.getOrderNumber()));
+        batches.values().stream()
+                .sorted(Comparator.comparing((List<Order> batch) -> batch.get(0).getAssignedTime()))
+                .forEach(batch -> {
+                    Order lead = batch.stream().filter(Order::isBatchLead).findFirst().orElse(batch.get(0));
+                    int units = batch.stream().mapToInt(Order::getQuantity).sum();
+                    reserve(lead.getId(), lead.getDrink().getId(), units, lead.getAssignedTime());
+                });
+
+        log.info("Loaded {} stations, {} drink recipes, {} in-progress reservations",
+                stations.size(), recipes.size(), reservations.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDrinkChanged(DrinkChangedEvent event) {
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        boolean wasInProgress = event.previous() != null
+                && event.previous().status() == Order.OrderStatus.IN_PROGRESS;
+        boolean inProgress = event.type() != ChangeType.DELETED
+                && event.current().status() == Order.OrderStatus.IN_PROGRESS;
+        if (wasInProgress && !inProgress) {
+            release(event.current().id());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The pending orders whose first station step can start within the tolerance.
+     * Emergencies always qualify: they would wait anyway, and assigning them
+     * claims the next free unit before anything else can.
+     */
+    public synchronized List<Order> startable(List<Order> pendingOrders) {
+        if (!enabled) {
+            return pendingOrders;
+        }
+        long now = System.currentTimeMillis();
+        return pendingOrders.stream()
+                .filter(order -> order.isEmergencyFlag()
+                        || plan(order.getDrink().getId(), order.getQuantity(), now).startDelayMillis
+                                <= startToleranceMillis)
+                .toList();
+    }
+
+    /**
+     * Reserve station time for a batch that starts now
+     *
+     * @return minutes until its last station step finishes (0 without a recipe or when disabled)
+     */
+    public synchronized int reserve(Long leadOrderId, Long drinkId, int units, LocalDateTime start) {
+        if (!enabled) {
+            return 0;
+        }
+        long startMillis = start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Plan plan = plan(drinkId, units, startMillis);
+        if (plan.steps.isEmpty()) {
+            return 0;
+        }
+        for (Reservation reservation : plan.steps) {
+            stations.get(reservation.stationId).freeAt[reservation.unit] = reservation.toMillis;
+        }
+        reservations.put(leadOrderId, plan.steps);
+        rollbackWithTransaction(leadOrderId);
+        return (int) Math.ceil((plan.readyAtMillis - startMillis) / 60_000.0);
+    }
+
+    /**
+     * Free whatever is left of an order's reservations (finished early or cancelled).
+     * A unit is only freed if nothing was booked on it after this order.
+     */
+    public synchronized void release(Long orderId) {
+        List<Reservation> released = reservations.remove(orderId);
+        if (released == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Reservation reservation : released) {
+            StationState station = stations.get(reservation.stationId);
+            if (station != null && reservation.unit < station.freeAt.length
+                    && station.freeAt[reservation.unit] == reservation.toMillis) {
+                station.freeAt[reservation.unit] = Math.min(reservation.toMillis, Math.max(now, reservation.fromMillis));
+            }
+        }
+    }
+
+    /**
+     * Undo a reservation whose assignment never committed, putting each unit
+     * back to when it was free before (unless something was booked after it)
+     */
+    private synchronized void rollback(Long leadOrderId) {
+        List<Reservation> rolledBack = reservations.remove(leadOrderId);
+        if (rolledBack == null) {
+            return;
+        }
+        for (int i = rolledBack.size() - 1; i >= 0; i--) {
+            Reservation reservation = rolledBack.get(i);
+            StationState station = stations.get(reservation.stationId);
+            if (station != null && reservation.unit < station.freeAt.length
+                    && station.freeAt[reservation.unit] == reservation.toMillis) {
+                station.freeAt[reservation.unit] = reservation.previousFreeAt;
+            }
+        }
+        log.debug("Rolled back station reservation for order {}", leadOrderId);
+    }
+
+    /**
+     * Roll the reservation back if the surrounding transaction does not commit.
+     * One synchronization per transaction undoes its reservations newest first,
+     * so each unit is restored in the reverse of the order it was booked.
+     */
+    private void rollbackWithTransaction(Long leadOrderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Deque<Long> pending = (Deque<Long>) TransactionSynchronizationManager.getResource(pendingReservationsKey);
+        if (pending == null) {
+            Deque<Long> reserved = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(pendingReservationsKey, reserved);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingReservationsKey);
+                    if (status != STATUS_COMMITTED) {
+                        reserved.forEach(StationCapacityService.this::rollback);
+                    }
+                }
+            });
+            pending = reserved;
+        }
+        pending.push(leadOrderId);
+    }
+
+    public synchronized List<StationStatus> getStatus() {
+        long now = System.currentTimeMillis();
+        List<StationStatus> status = new ArrayList<>();
+        for (StationState station : stations.values()) {
+            int busy = 0;
+            long nextFree = Long.MAX_VALUE;
+            for (long freeAt : station.freeAt) {
+                if (freeAt > now) {
+                    busy++;
+                }
+                nextFree = Math.min(nextFree, Math.max(freeAt, now));
+            }
+            status.add(new StationStatus(station.id, station.name, station.freeAt.length, busy, toLocal(nextFree)));
+        }
+        return status;
+    }
+
+    /**
+     * Steady-state throughput ceiling for the current menu mix (drink frequency)
+     *
+     * Each resource can serve at most capacity x 60 / (minutes it spends on an
+     * average drink) drinks per hour; the shop's ceiling is the lowest of them.
+     */
+    public Throughput getThroughput() {
+        int activeBaristas = (int) baristaRepository.findAll().stream()
+                .filter(barista -> barista.getStatus() != Barista.BaristaStatus.OFFLINE)
+                .count();
+
+        synchronized (this) {
+            double totalWeight = drinks.values().stream()
+                    .mapToDouble(drink -> drink.getFrequency().doubleValue())
+                    .sum();
+            if (totalWeight <= 0) {
+                return new Throughput(0.0, null, activeBaristas, 0.0, List.of());
+            }
+
+            double baristaMinutes = drinks.values().stream()
+                    .mapToDouble(drink -> drink.getFrequency().doubleValue() * drink.getPrepTime())
+                    .sum() / totalWeight;
+            double baristaCeiling = ceiling(activeBaristas, baristaMinutes);
+
+            Map<Long, Double> stationMinutes = new HashMap<>();
+            for (Map.Entry<Long, List<Step>> recipe : recipes.entrySet()) {
+                Drink drink = drinks.get(recipe.getKey());
+                if (drink == null) {
+                    continue;
+                }
+                double weight = drink.getFrequency().doubleValue() / totalWeight;
+                for (Step step : recipe.getValue()) {
+                    stationMinutes.merge(step.stationId, weight * step.minutes, Double::sum);
+                }
+            }
+
+            double ceiling = baristaCeiling;
+            String bottleneck = "Baristas";
+            for (StationState station : stations.values()) {
+                double stationCeiling = ceiling(station.freeAt.length, stationMinutes.getOrDefault(station.id, 0.0));
+                if (stationCeiling < ceiling) {
+                    ceiling = stationCeiling;
+                    bottleneck = station.name;
+                }
+            }
+
+            List<StationThroughput> perStation = new ArrayList<>();
+            for (StationState station : stations.values()) {
+                int capacity = station.freeAt.length;
+                double minutes = stationMinutes.getOrDefault(station.id, 0.0);
+                perStation.add(new StationThroughput(station.name, capacity, round(minutes),
+                        minutes > 0 ? round(ceiling(capacity, minutes)) : null,
+                        round(ceiling * minutes / (capacity * 60.0))));
+            }
+            return new Throughput(round(ceiling), bottleneck, activeBaristas, round(baristaCeiling), perStation);
+        }
+    }
+
+    private Plan plan(Long drinkId, int units, long startMillis) {
+        List<Step> recipe = recipes.getOrDefault(drinkId, List.of());
+        List<Reservation> steps = new ArrayList<>(recipe.size());
+        long cursor = startMillis;
+        long firstStart = startMillis;
+
+        for (Step step : recipe) {
+            StationState station = stations.get(step.stationId);
+            if (station == null) {
+                continue;
+            }
+            int unit = 0;
+            for (int i = 1; i < station.freeAt.length; i++) {
+                if (station.freeAt[i] < station.freeAt[unit]) {
+                    unit = i;
+                }
+            }
+            long from = Math.max(cursor, station.freeAt[unit]);
+            long to = from + batchPlanner.prepMinutes(step.minutes, units) * 60_000L;
+            if (steps.isEmpty()) {
+                firstStart = from;
+            }
+            steps.add(new Reservation(step.stationId, unit, from, to, station.freeAt[unit]));
+            cursor = to;
+        }
+        return new Plan(steps, firstStart - startMillis, cursor);
+    }
+
+    private static double ceiling(int capacity, double minutesPerDrink) {
+        return minutesPerDrink > 0 ? capacity * 60.0 / minutesPerDrink : Double.MAX_VALUE;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record Step(Long stationId, int minutes) {
+    }
+
+    private record Reservation(Long stationId, int unit, long fromMillis, long toMillis, long previousFreeAt) {
+    }
+
+    private record Plan(List<Reservation> steps, long startDelayMillis, long readyAtMillis) {
+    }
+
+    private record StationState(Long id, String name, long[] freeAt) {
+    }
+
+    public record StationStatus(Long id, String name, int capacity, int busyUnits, LocalDateTime nextFreeAt) {
+    }
+
+    public record StationThroughput(
+            String station,
+            int capacity,
+            double minutesPerDrink,
+            Double drinksPerHour,
+            double utilisationAtCeiling) {
+    }
+
+    public record Throughput(
+            double drinksPerHour,
+            String bottleneck,
+            int activeBaristas,
+            double baristaDrinksPerHour,
+            List<StationThroughput> stations) {
+    }
+}
@@ -2,6 +2,7 @@ package com.beanbrewcafe.barista.service;
 
 import com.beanbrewcafe.barista.model.Barista;
 import com.beanbrewcafe.barista.model.Order;
+import com.beanbrewcafe.barista.model.PriorityFormula;
 import com.beanbrewcafe.barista.repository.BaristaRepository;
 import com.beanbrewcafe.barista.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
@@ -60,7 +61,7 @@ public class TestMetricsService {
 
             // Timeout rate (orders waiting > 10 min)
             long timeouts = allOrders.stream()
-                    .filter(o -> o.getCurrentWaitMinutes() > 10)
+                    .filter(o -> o.getCurrentWaitMinutes() > PriorityFormula.MAX_WAIT_MINUTES)
                     .count();
 
             double rate = (double) timeouts / allOrders.size() * 100;
@@ -0,0 +1,343 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.OrderArrival;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.model.Customer;
+import com.beanbrewcafe.barista.model.PriorityFormula;
+import com.beanbrewcafe.barista.repository.BaristaRepository;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import com.beanbrewcafe.barista.scheduler.policy.BaristaState;
+import com.beanbrewcafe.barista.scheduler.policy.CandidateOrder;
+import com.beanbrewcafe.barista.scheduler.policy.PolicyDecision;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingContext;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicies;
+import com.beanbrewcafe.barista.scheduler.policy.SchedulingPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace Replay Service
+ * Replays historical order arrivals through several scheduling policies side by side
+ *
+ * The trace is every order placed in a time range (arrival time, drink, quantity,
+ * loyalty). Each policy gets its own discrete-event simulation of the same trace:
+ * a fixed number of baristas, static prep times (drink prep x quantity), priority
+ * scores from PriorityFormula at simulated time, and the same skip-count fairness
+ * bookkeeping as live assignment. Policies run in parallel, one per thread.
+ *
+ * Stations and batching are not simulated, so results compare decision rules
+ * alone. A timeout is an order whose order-to-ready time exceeds 10 minutes.
+ */
+@Service
+@Slf4j
+public class TraceReplayService {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final OrderRepository orderRepository;
+    private final BaristaRepository baristaRepository;
+    private final SchedulingPolicies schedulingPolicies;
+    private final int maxOrders;
+
+    public TraceReplayService(OrderRepository orderRepository,
+            BaristaRepository baristaRepository,
+            SchedulingPolicies schedulingPolicies,
+            @Value("${scheduler.replay.max-orders:50000}") int maxOrders) {
+        this.orderRepository = orderRepository;
+        this.baristaRepository = baristaRepository;
+        this.schedulingPolicies = schedulingPolicies;
+        this.maxOrders = Math.min(Math.max(maxOrders, 1), Integer.MAX_VALUE - 1);
+    }
+
+    /**
+     * Replay orders placed in [from, to] through the named policies
+     *
+     * @param policyNames policies to compare (all registered policies if empty)
+     * @param baristas    simulated baristas (currently active baristas if null)
+     * @throws IllegalArgumentException for an unknown policy name
+     */
+    public ReplayReport replay(LocalDateTime from, LocalDateTime to, List<String> policyNames,
+            Integer baristas, boolean includeTestOrders) {
+        List<SchedulingPolicy> policies = (policyNames == null || policyNames.isEmpty()
+                ? schedulingPolicies.names() : policyNames).stream()
+                .map(name -> schedulingPolicies.get(name).orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown policy '" + name + "', expected one of " + schedulingPolicies.names())))
+                .distinct()
+                .toList();
+
+        int baristaCount = baristas != null ? baristas : (int) baristaRepository.findAll().stream()
+                .filter(barista -> barista.getStatus() != Barista.BaristaStatus.OFFLINE)
+                .count();
+        baristaCount = Math.max(baristaCount, 1);
+
+        // One row past the cap tells whether the range was truncated
+        List<TraceOrder> trace = loadTrace(from, to, includeTestOrders, maxOrders + 1);
+        boolean truncated = trace.size() > maxOrders;
+        if (truncated) {
+            trace = trace.subList(0, maxOrders);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(policies.size(), Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "trace-replay-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<TraceOrder> replayed = trace;
+            int simulatedBaristas = baristaCount;
+            List<CompletableFuture<PolicyResult>> runs = policies.stream()
+                    .map(policy -> CompletableFuture.supplyAsync(
+                            () -> simulate(policy, replayed, simulatedBaristas), pool))
+                    .toList();
+            List<PolicyResult> results = runs.stream().map(CompletableFuture::join).toList();
+
+            log.info("Replayed {} orders through {} policies with {} baristas",
+                    trace.size(), policies.size(), baristaCount);
+            return new ReplayReport(from, to, trace.size(), truncated, baristaCount, results);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The first {@code limit} arrivals in [from, to], oldest first
+     */
+    private List<TraceOrder> loadTrace(LocalDateTime from, LocalDateTime to, boolean includeTestOrders, int limit) {
+        ZoneId zone = ZoneId.systemDefault();
+        return orderRepository.findOrderArrivals(from, to, includeTestOrders, PageRequest.of(0, limit)).stream()
+                .map(arrival -> {
+                    int quantity = arrival.quantity() != null ? arrival.quantity() : 1;
+                    int unitPrep = arrival.drinkPrepTime() != null ? arrival.drinkPrepTime() : 0;
+                    return new TraceOrder(
+                            arrival.id(),
+                            arrival.orderNumber(),
+                            arrival.orderTime(),
+                            arrival.orderTime().atZone(zone).toInstant().toEpochMilli(),
+                            unitPrep * quantity,
+                            arrival.loyaltyStatus(),
+                            arrival.drinkId(),
+                            quantity);
+                })
+                .toList();
+    }
+
+    private PolicyResult simulate(SchedulingPolicy policy, List<TraceOrder> trace, int baristaCount) {
+        int n = trace.size();
+        if (n == 0) {
+            return PolicyResult.empty(policy.name());
+        }
+
+        long origin = trace.get(0).arrivalMillis;
+        LocalDateTime originTime = trace.get(0).orderTime;
+        long[] freeAt = new long[baristaCount];
+        Arrays.fill(freeAt, origin);
+
+        SimOrder[] orders = new SimOrder[n];
+        List<SimOrder> pending = new ArrayList<>();
+        int next = 0;
+        long now = origin;
+        long decisions = 0;
+        long decisionNanos = 0;
+
+        while (next < n || !pending.isEmpty()) {
+            while (next < n && trace.get(next).arrivalMillis <= now) {
+                orders[next] = new SimOrder(trace.get(next));
+                pending.add(orders[next]);
+                next++;
+            }
+
+            // Hand out work to every barista who is free at this instant
+            while (!pending.isEmpty()) {
+                int barista = 0;
+                for (int b = 1; b < baristaCount; b++) {
+                    if (freeAt[b] < freeAt[barista]) {
+                        barista = b;
+                    }
+                }
+                if (freeAt[barista] > now) {
+                    break;
+                }
+
+                long started = System.nanoTime();
+                SimOrder chosen = decide(policy, pending, freeAt, barista, now,
+                        originTime.plusNanos((now - origin) * 1_000_000L));
+                decisionNanos += System.nanoTime() - started;
+                decisions++;
+
+                chosen.startMillis = now;
+                freeAt[barista] = now + chosen.trace.prepMinutes * MINUTE_MILLIS;
+                pending.remove(chosen);
+                for (SimOrder order : pending) {
+                    if (order.trace.arrivalMillis < chosen.trace.arrivalMillis) {
+                        order.skippedCount++;
+                    }
+                }
+            }
+
+            long nextEvent = next < n ? trace.get(next).arrivalMillis : Long.MAX_VALUE;
+            if (!pending.isEmpty()) {
+                for (long free : freeAt) {
+                    if (free > now) {
+                        nextEvent = Math.min(nextEvent, free);
+                    }
+                }
+            }
+            if (nextEvent == Long.MAX_VALUE) {
+                break;
+            }
+            now = nextEvent;
+        }
+
+        return summarize(policy.name(), orders, origin, decisions, decisionNanos);
+    }
+
+    private SimOrder decide(SchedulingPolicy policy, List<SimOrder> pending, long[] freeAt, int barista,
+            long now, LocalDateTime nowTime) {
+        Map<CandidateOrder, SimOrder> byCandidate = new IdentityHashMap<>();
+        List<CandidateOrder> candidates = new ArrayList<>(pending.size());
+        for (SimOrder order : pending) {
+            int waitMinutes = (int) ((now - order.trace.arrivalMillis) / MINUTE_MILLIS);
+            if (waitMinutes >= PriorityFormula.EMERGENCY_WAIT_MINUTES) {
+                order.emergency = true;
+            }
+            double score = PriorityFormula.score(waitMinutes, order.trace.prepMinutes,
+                    order.trace.loyaltyStatus, order.skippedCount);
+            CandidateOrder candidate = new CandidateOrder(order.trace.id, order.trace.orderNumber,
+                    order.trace.orderTime, waitMinutes, order.trace.prepMinutes, score, order.emergency,
+                    order.skippedCount, order.trace.loyaltyStatus, order.trace.drinkId, order.trace.quantity);
+            byCandidate.put(candidate, order);
+            candidates.add(candidate);
+        }
+        // Pending is in arrival order, so a stable sort breaks ties by order time like live assignment
+        candidates.sort(Comparator.comparingDouble(policy::priority).reversed());
+
+        double totalWorkload = 0.0;
+        List<BaristaState> others = new ArrayList<>();
+        for (int b = 0; b < freeAt.length; b++) {
+            double remaining = Math.max(freeAt[b] - now, 0) / (double) MINUTE_MILLIS;
+            totalWorkload += remaining;
+            if (b != barista && policy.usesOtherBaristas()) {
+                others.add(new BaristaState((long) b, "Barista " + (b + 1), (int) Math.ceil(remaining), remaining));
+            }
+        }
+
+        SchedulingContext context = new SchedulingContext(nowTime,
+                new BaristaState((long) barista, "Barista " + (barista + 1), 0, 0.0),
+                others, totalWorkload / freeAt.length, candidates, true);
+        PolicyDecision decision = policy.select(context);
+        return byCandidate.get(decision.order());
+    }
+
+    private static PolicyResult summarize(String policy, SimOrder[] orders, long origin, long decisions,
+            long decisionNanos) {
+        double[] waits = new double[orders.length];
+        int timeouts = 0;
+        long lastReady = origin;
+        double totalWait = 0.0;
+
+        for (int i = 0; i < orders.length; i++) {
+            SimOrder order = orders[i];
+            double wait = (order.startMillis - order.trace.arrivalMillis) / (double) MINUTE_MILLIS;
+            waits[i] = wait;
+            totalWait += wait;
+            if (wait + order.trace.prepMinutes > PriorityFormula.MAX_WAIT_MINUTES) {
+                timeouts++;
+            }
+            lastReady = Math.max(lastReady, order.startMillis + order.trace.prepMinutes * MINUTE_MILLIS);
+        }
+        Arrays.sort(waits);
+
+        double makespanMinutes = (lastReady - origin) / (double) MINUTE_MILLIS;
+        return new PolicyResult(
+                policy,
+                orders.length,
+                round(makespanMinutes > 0 ? orders.length * 60.0 / makespanMinutes : 0.0),
+                round((double) timeouts / orders.length),
+                round(totalWait / orders.length),
+                round(percentile(waits, 0.50)),
+                round(percentile(waits, 0.90)),
+                round(percentile(waits, 0.99)),
+                round(waits[waits.length - 1]),
+                round(makespanMinutes),
+                decisions,
+                round(decisions == 0 ? 0.0 : decisionNanos / 1_000.0 / decisions));
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private record TraceOrder(
+            Long id,
+            String orderNumber,
+            LocalDateTime orderTime,
+            long arrivalMillis,
+            int prepMinutes,
+            Customer.LoyaltyStatus loyaltyStatus,
+            Long drinkId,
+            int quantity) {
+    }
+
+    private static final class SimOrder {
+        final TraceOrder trace;
+        int skippedCount;
+        boolean emergency;
+        long startMillis;
+
+        SimOrder(TraceOrder trace) {
+            this.trace = trace;
+        }
+    }
+
+    public record PolicyResult(
+            String policy,
+            int orders,
+            double throughputPerHour,
+            double timeoutRate,
+            double avgWaitMinutes,
+            double p50WaitMinutes,
+            double p90WaitMinutes,
+            double p99WaitMinutes,
+            double maxWaitMinutes,
+            double makespanMinutes,
+            long decisions,
+            double avgDecisionMicros) {
+
+        static PolicyResult empty(String policy) {
+            return new PolicyResult(policy, 0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0, 0.0);
+        }
+    }
+
+    public record ReplayReport(
+            LocalDateTime from,
+            LocalDateTime to,
+            int orders,
+            boolean truncated,
+            int baristas,
+            List<PolicyResult> results) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.dto.FanoutControlMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocket Fan-out Service
+ * Per-session bounded, conflating outbound queues for live updates
+ *
+ * Clients subscribe to /user/queue/{channel} (orders, baristas, queue-feed).
+ * Each broadcast is queued per subscribed session:
+ * 1. A newer update with the same conflation key (e.g. order:42) replaces the
+ *    queued one in place, so a slow session only ever gets the latest state
+ * 2. If the queue is still full, the session is lagging hopelessly: its queue is
+ *    dropped and replaced by a single RESYNC control message per channel
+ * 3. A flusher sends at most a fixed budget per session per tick
+ *
+ * Memory per session is bounded by the queue capacity, and the transport-level
+ * send limits in WebSocketConfig close sessions whose socket stops draining.
+ */
+@Service
+@Slf4j
+public class WebSocketFanoutService {
+
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int queueCapacity;
+    private final int flushBudget;
+    private final long flushIntervalMillis;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong uniqueKeys = new AtomicLong();
+    private ScheduledExecutorService flusher;
+
+    public WebSocketFanoutService(SimpMessagingTemplate messagingTemplate,
+            @Value("${websocket.fanout.queue-capacity:256}") int queueCapacity,
+            @Value("${websocket.fanout.flush-budget:64}") int flushBudget,
+            @Value("${websocket.fanout.flush-interval:50}") long flushIntervalMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.queueCapacity = queueCapacity;
+        this.flushBudget = flushBudget;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Queue an update for every session subscribed to the channel
+     *
+     * @param conflationKey updates with the same key supersede each other; null = never conflate
+     */
+    public void broadcast(String channel, String conflationKey, Object payload) {
+        String key = channel + ":" + (conflationKey != null ? conflationKey : "#" + uniqueKeys.incrementAndGet());
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.channels.contains(channel)) {
+                subscriber.offer(key, channel, payload, queueCapacity);
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+            return;
+        }
+        String channel = destination.substring(USER_QUEUE_PREFIX.length());
+        Subscriber subscriber = subscribers.computeIfAbsent(headers.getSessionId(), Subscriber::new);
+        subscriber.subscriptions.put(headers.getSubscriptionId(), channel);
+        subscriber.channels.add(channel);
+        log.debug("Session {} subscribed to {}", headers.getSessionId(), channel);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Subscriber subscriber = subscribers.get(headers.getSessionId());
+        if (subscriber == null) {
+            return;
+        }
+        String channel = subscriber.subscriptions.remove(headers.getSubscriptionId());
+        if (channel != null && !subscriber.subscriptions.containsValue(channel)) {
+            subscriber.channels.remove(channel);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Subscriber subscriber = subscribers.remove(event.getSessionId());
+        if (subscriber != null) {
+            log.debug("Session {} disconnected ({} sent, {} conflated, {} resyncs)", subscriber.sessionId,
+                    subscriber.sent.get(), subscriber.conflated.get(), subscriber.resyncs.get());
+        }
+    }
+
+    public List<SessionMetrics> getSessionMetrics() {
+        return subscribers.values().stream()
+                .map(Subscriber::metrics)
+                .toList();
+    }
+
+    private void flush() {
+        for (Subscriber subscriber : subscribers.values()) {
+            List<Outbound> batch = subscriber.drain(flushBudget);
+            for (Outbound outbound : batch) {
+                try {
+                    send(subscriber.sessionId, outbound);
+                    subscriber.sent.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to send {} update to session {}: {}",
+                            outbound.channel(), subscriber.sessionId, e.getMessage());
+                }
+            }
+            if (!batch.isEmpty()) {
+                subscriber.lastSentAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void send(String sessionId, Outbound outbound) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, "/queue/" + outbound.channel(), outbound.payload(),
+                headers.getMessageHeaders());
+    }
+
+    private record Outbound(String channel, Object payload) {
+    }
+
+    private static final class Subscriber {
+        final String sessionId;
+        final long connectedAt = System.currentTimeMillis();
+        final Map<String, String> subscriptions = new ConcurrentHashMap<>(); // subscription id -> channel
+        final Set<String> channels = ConcurrentHashMap.newKeySet();
+        final LinkedHashMap<String, Outbound> queue = new LinkedHashMap<>(); // guarded by this
+
+        final AtomicLong enqueued = new AtomicLong();
+        final AtomicLong conflated = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong resyncs = new AtomicLong();
+        final AtomicLong sent = new AtomicLong();
+        int maxDepth; // guarded by this
+        volatile long lastSentAt;
+
+        Subscriber(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        synchronized void offer(String key, String channel, Object payload, int capacity) {
+            Outbound outbound = new Outbound(channel, payload);
+            if (queue.containsKey(key)) {
+                // Superseded update: replace in place, keeping its original position
+                queue.put(key, outbound);
+                conflated.incrementAndGet();
+                return;
+            }
+            if (queue.size() >= capacity) {
+                dropped.addAndGet(queue.size() + 1);
+                resyncs.incrementAndGet();
+                queue.clear();
+                for (String subscribed : channels) {
+                    queue.put(subscribed + ":resync",
+                            new Outbound(subscribed, FanoutControlMessage.resync(subscribed, "outbound queue overflow")));
+                }
+                log.warn("Session {} overflowed its outbound queue ({}), forcing resync", sessionId, capacity);
+                return;
+            }
+            queue.put(key, outbound);
+            enqueued.incrementAndGet();
+            maxDepth = Math.max(maxDepth, queue.size());
+        }
+
+        synchronized List<Outbound> drain(int budget) {
+            List<Outbound> batch = new ArrayList<>(Math.min(budget, queue.size()));
+            Iterator<Outbound> iterator = queue.values().iterator();
+            while (iterator.hasNext() && batch.size() < budget) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            return batch;
+        }
+
+        synchronized SessionMetrics metrics() {
+            return new SessionMetrics(sessionId, Set.copyOf(channels), queue.size(), maxDepth, enqueued.get(),
+                    conflated.get(), dropped.get(), resyncs.get(), sent.get(), connectedAt, lastSentAt);
+        }
+    }
+
+    public record SessionMetrics(
+            String sessionId,
+            Set<String> channels,
+            int queueDepth,
+            int maxQueueDepth,
+            long enqueued,
+            long conflated,
+            long dropped,
+            long resyncs,
+            long sent,
+            long connectedAt,
+            long lastSentAt) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.beanbrewcafe.barista.service;
+
+import com.beanbrewcafe.barista.event.BaristaSnapshot;
+import com.beanbrewcafe.barista.model.Barista;
+import com.beanbrewcafe.barista.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Work Slots
+ * How many prep runs a barista may have in progress at once, and what that means
+ * for their status and workload
+ *
+ * A barista pipelines work (steaming milk while a shot pulls), so they stay
+ * AVAILABLE until every slot is taken; equipment contention between those runs
+ * is handled by StationCapacityService. A batch occupies one slot. Workload is
+ * still the sum of assigned prep minutes, but balancing and lookahead use the
+ * effective workload (workload / slots), since overlapping runs finish together.
+ */
+@Component
+public class WorkSlots {
+
+    private final OrderRepository orderRepository;
+    private final int defaultSlots;
+
+    public WorkSlots(OrderRepository orderRepository,
+            @Value("${baristas.default-work-slots:1}") int defaultSlots) {
+        this.orderRepository = orderRepository;
+        this.defaultSlots = Math.max(defaultSlots, 1);
+    }
+
+    /**
+     * The barista's own work_slots, or baristas.default-work-slots when unset
+     */
+    public int slotsOf(Barista barista) {
+        return slotsOf(barista.getWorkSlots());
+    }
+
+    public int slotsOf(BaristaSnapshot barista) {
+        return slotsOf(barista.workSlots());
+    }
+
+    private int slotsOf(Integer slots) {
+        return slots != null && slots > 0 ? slots : defaultSlots;
+    }
+
+    /**
+     * Minutes of work per slot
+     */
+    public double effectiveWorkload(Barista barista) {
+        int workload = barista.getCurrentWorkload() != null ? barista.getCurrentWorkload() : 0;
+        return (double) workload / slotsOf(barista);
+    }
+
+    /**
+     * Prep runs in progress (each batch counts once)
+     */
+    public int activeSlots(Barista barista) {
+        return (int) orderRepository.countActiveSlotsByBarista(barista.getId());
+    }
+
+    /**
+     * Set AVAILABLE while a slot is free and BUSY once all are taken.
+     * An idle barista always becomes AVAILABLE; an OFFLINE barista with work
+     * in progress stays OFFLINE.
+     */
+    public void refreshStatus(Barista barista) {
+        int active = activeSlots(barista);
+        if (active == 0) {
+            barista.setStatus(Barista.BaristaStatus.AVAILABLE);
+        } else if (barista.getStatus() != Barista.BaristaStatus.OFFLINE) {
+            barista.setStatus(active >= slotsOf(barista)
+                    ? Barista.BaristaStatus.BUSY
+                    : Barista.BaristaStatus.AVAILABLE);
+        }
+    }
+}
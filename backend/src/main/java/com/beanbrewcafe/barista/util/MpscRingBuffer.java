@@ -0,0 +1,99 @@
+package com.beanbrewcafe.barista.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Each slot carries a sequence number (Vyukov's bounded queue): a producer
+ * claims a slot with one CAS on the tail, writes the element, then publishes
+ * it by advancing the slot's sequence. The consumer reads published slots in
+ * order and hands them back by advancing the sequence one lap. Producers
+ * never block; {@link #offer} returns false when the buffer is full.
+ *
+ * Only one thread may call {@link #drain}.
+ */
+public class MpscRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate number of queued elements
+     */
+    public int size() {
+        return (int) Math.max(tail.get() - head, 0);
+    }
+
+    /**
+     * Add an element without blocking
+     *
+     * @return false if the buffer is full
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            long lag = sequence - position;
+
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1); // publish
+                    return true;
+                }
+            } else if (lag < 0) {
+                return false; // slot still holds an element from the previous lap
+            }
+            // else another producer claimed this position; retry with the new tail
+        }
+    }
+
+    /**
+     * Hand up to {@code limit} published elements to the consumer, in order
+     *
+     * @return number of elements drained
+     */
+    public int drain(Consumer<T> consumer, int limit) {
+        long position = head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; // empty, or the producer has claimed but not yet published
+            }
+            T element = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, position + mask + 1); // free the slot for the next lap
+            position++;
+            drained++;
+            head = position;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,207 @@
+package com.beanbrewcafe.barista.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic tree (treap) over unique comparable keys.
+ *
+ * Every node is augmented with its subtree size and the sum of its subtree's
+ * weights, so rank ("how many keys come before X") and prefix weight ("how much
+ * work is ahead of X") are answered in O(log n) expected time, as are inserts,
+ * removals and k-th element lookups.
+ *
+ * Not thread-safe; callers are expected to guard it with their own lock.
+ */
+public class OrderStatisticTree<K extends Comparable<K>> {
+
+    private Node<K> root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public long totalWeight() {
+        return sum(root);
+    }
+
+    /**
+     * Insert a key with the given weight. The key must not already be present.
+     */
+    public void insert(K key, long weight) {
+        Node<K> node = new Node<>(key, weight, ThreadLocalRandom.current().nextInt());
+        Split<K> parts = split(root, key);
+        root = merge(merge(parts.left(), node), parts.right());
+    }
+
+    /**
+     * Remove a key if present
+     *
+     * @return true if the key was found and removed
+     */
+    public boolean remove(K key) {
+        int before = size(root);
+        root = remove(root, key);
+        return size(root) != before;
+    }
+
+    /**
+     * Number of keys strictly less than the given key (0-based position)
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Sum of weights of all keys strictly less than the given key
+     */
+    public long weightBefore(K key) {
+        long total = 0;
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                total += sum(node.left) + node.weight;
+                node = node.right;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Key at the given 0-based position, or null if out of range
+     */
+    public K get(int index) {
+        Node<K> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.key;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All keys in order
+     */
+    public List<K> toList() {
+        List<K> keys = new ArrayList<>(size());
+        collect(root, keys);
+        return keys;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    private Node<K> remove(Node<K> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = key.compareTo(node.key);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, key);
+        } else {
+            node.right = remove(node.right, key);
+        }
+        return update(node);
+    }
+
+    /**
+     * Split into [keys < key, keys >= key]
+     */
+    private Split<K> split(Node<K> node, K key) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (node.key.compareTo(key) < 0) {
+            Split<K> parts = split(node.right, key);
+            node.right = parts.left();
+            return new Split<>(update(node), parts.right());
+        }
+        Split<K> parts = split(node.left, key);
+        node.left = parts.right();
+        return new Split<>(parts.left(), update(node));
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private void collect(Node<K> node, List<K> keys) {
+        if (node == null) {
+            return;
+        }
+        collect(node.left, keys);
+        keys.add(node.key);
+        collect(node.right, keys);
+    }
+
+    private static <K> Node<K> update(Node<K> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.sum = node.weight + sum(node.left) + sum(node.right);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static long sum(Node<?> node) {
+        return node == null ? 0 : node.sum;
+    }
+
+    private static final class Node<K> {
+        final K key;
+        final long weight;
+        final int priority;
+        int size = 1;
+        long sum;
+        Node<K> left;
+        Node<K> right;
+
+        Node(K key, long weight, int priority) {
+            this.key = key;
+            this.weight = weight;
+            this.priority = priority;
+            this.sum = weight;
+        }
+    }
+
+    private record Split<K>(Node<K> left, Node<K> right) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.beanbrewcafe.barista.util;
+
+/**
+ * Token bucket rate limiter: holds up to {@code capacity} tokens, refilled
+ * continuously at {@code refillPerSecond}. Each acquisition takes one token.
+ *
+ * Refill is computed lazily from elapsed time on each call, so idle buckets
+ * cost nothing. Thread-safe.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Take one token if available
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Seconds until the next token is available (0 if one is available now)
+     */
+    public synchronized long secondsUntilAvailable() {
+        refill();
+        if (tokens >= 1 || refillPerNano <= 0) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000.0);
+    }
+
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
@@ -15,6 +15,7 @@ CREATE TABLE IF NOT EXISTS baristas (
     name VARCHAR(100) NOT NULL,
     status ENUM('AVAILABLE', 'BUSY', 'OFFLINE') DEFAULT 'AVAILABLE',
     current_workload INT DEFAULT 0 COMMENT 'Current workload in minutes',
+    work_slots INT COMMENT 'Prep runs in progress at once (NULL = default)',
     total_orders_served INT DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
@@ -49,12 +50,32 @@ CREATE TABLE IF NOT EXISTS orders (
     wait_time_minutes INT,
     skipped_count INT DEFAULT 0 COMMENT 'How many later orders were served first',
     emergency_flag BOOLEAN DEFAULT FALSE,
+    assigned_prep_minutes INT COMMENT 'Prep minutes charged at assignment (whole batch)',
+    batch_id VARCHAR(20) COMMENT 'Order number of the batch lead',
+    idempotency_key VARCHAR(64) UNIQUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (customer_id) REFERENCES customers(id),
     FOREIGN KEY (drink_id) REFERENCES drinks(id),
     FOREIGN KEY (barista_id) REFERENCES baristas(id)
 );
+-- Stations Table (shared equipment and how many drinks each can work on at once)
+CREATE TABLE IF NOT EXISTS stations (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    capacity INT NOT NULL DEFAULT 1 COMMENT 'Group heads, wands or taps'
+);
+-- Drink Stations Table (recipe steps: station used and minutes per unit)
+CREATE TABLE IF NOT EXISTS drink_stations (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    drink_id BIGINT NOT NULL,
+    station_id BIGINT NOT NULL,
+    minutes INT NOT NULL COMMENT 'Station minutes per unit',
+    sequence INT NOT NULL DEFAULT 1 COMMENT 'Step order within the recipe',
+    UNIQUE (drink_id, station_id),
+    FOREIGN KEY (drink_id) REFERENCES drinks(id),
+    FOREIGN KEY (station_id) REFERENCES stations(id)
+);
 -- Indexes for performance
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
 CREATE INDEX IF NOT EXISTS idx_orders_priority ON orders(priority_score DESC);
@@ -68,6 +89,22 @@ VALUES (1, 'Cold Brew', 1, 25.00, 120.00),
     (4, 'Cappuccino', 4, 20.00, 180.00),
     (5, 'Latte', 4, 12.00, 200.00),
     (6, 'Specialty (Mocha)', 6, 8.00, 250.00);
+-- Insert sample stations (only if table is empty)
+INSERT IGNORE INTO stations (id, name, capacity)
+VALUES (1, 'Espresso Machine', 2),
+    (2, 'Steam Wand', 1),
+    (3, 'Brew Bar', 2);
+-- Insert sample drink recipes (only if table is empty)
+INSERT IGNORE INTO drink_stations (id, drink_id, station_id, minutes, sequence)
+VALUES (1, 1, 3, 1, 1),
+    (2, 2, 1, 1, 1),
+    (3, 3, 1, 1, 1),
+    (4, 4, 1, 1, 1),
+    (5, 4, 2, 2, 2),
+    (6, 5, 1, 1, 1),
+    (7, 5, 2, 2, 2),
+    (8, 6, 1, 1, 1),
+    (9, 6, 2, 3, 2);
 -- Insert sample baristas (only if table is empty)
 INSERT IGNORE INTO baristas (id, name, status)
 VALUES (1, 'Barista A', 'AVAILABLE'),
@@ -0,0 +1,85 @@
+package com.beanbrewcafe.barista.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void emptyTree() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.totalWeight()).isZero();
+        assertThat(tree.rank(42)).isZero();
+        assertThat(tree.weightBefore(42)).isZero();
+        assertThat(tree.get(0)).isNull();
+        assertThat(tree.toList()).isEmpty();
+        assertThat(tree.remove(42)).isFalse();
+    }
+
+    @Test
+    void rankWeightAndSelectOfSmallTree() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+        tree.insert(30, 3);
+        tree.insert(10, 1);
+        tree.insert(20, 2);
+
+        assertThat(tree.toList()).containsExactly(10, 20, 30);
+        assertThat(tree.rank(10)).isZero();
+        assertThat(tree.rank(30)).isEqualTo(2);
+        assertThat(tree.rank(25)).isEqualTo(2); // absent keys rank where they would be inserted
+        assertThat(tree.weightBefore(30)).isEqualTo(3);
+        assertThat(tree.totalWeight()).isEqualTo(6);
+        assertThat(tree.get(1)).isEqualTo(20);
+        assertThat(tree.get(3)).isNull();
+        assertThat(tree.get(-1)).isNull();
+    }
+
+    @Test
+    void matchesSortedMapAfterRandomInsertsAndDeletes() {
+        Random random = new Random(20240521L);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>();
+        TreeMap<Integer, Long> expected = new TreeMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            int key = random.nextInt(1_000);
+            if (expected.containsKey(key)) {
+                assertThat(tree.remove(key)).isTrue();
+                expected.remove(key);
+            } else {
+                long weight = 1 + random.nextInt(20);
+                tree.insert(key, weight);
+                expected.put(key, weight);
+            }
+
+            if (step % 250 == 0) {
+                assertMatches(tree, expected);
+            }
+        }
+        assertMatches(tree, expected);
+    }
+
+    private static void assertMatches(OrderStatisticTree<Integer> tree, TreeMap<Integer, Long> expected) {
+        List<Integer> keys = new ArrayList<>(expected.keySet());
+        assertThat(tree.size()).isEqualTo(keys.size());
+        assertThat(tree.totalWeight()).isEqualTo(expected.values().stream().mapToLong(Long::longValue).sum());
+        assertThat(tree.toList()).isEqualTo(keys);
+
+        long weightBefore = 0;
+        for (int index = 0; index < keys.size(); index++) {
+            Integer key = keys.get(index);
+            assertThat(tree.get(index)).isEqualTo(key);
+            assertThat(tree.rank(key)).isEqualTo(index);
+            assertThat(tree.weightBefore(key)).isEqualTo(weightBefore);
+            weightBefore += expected.get(key);
+        }
+        assertThat(tree.get(keys.size())).isNull();
+    }
+}
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Coffee, Clock, AlertCircle, CheckCircle, Loader } from 'lucide-react';
-import { Order, DrinkMenuItem } from '../types';
-import { createOrder, getPendingOrders, getMenuItems } from '../services/api';
+import { Order, DrinkMenuItem, OrderStatus } from '../types';
+import { createOrder, getQueuePosition, getMenuItems, watchOrder } from '../services/api';
 
 const CustomerInterface: React.FC = () => {
     const [customerPhone, setCustomerPhone] = useState('');
@@ -14,7 +14,8 @@ const CustomerInterface: React.FC = () => {
     const [orderPlaced, setOrderPlaced] = useState(false);
     const [currentOrder, setCurrentOrder] = useState<Order | null>(null);
     const [queuePosition, setQueuePosition] = useState<number>(0);
-    const [pendingOrders, setPendingOrders] = useState<Order[]>([]);
+    const [waitMinutes, setWaitMinutes] = useState<number | null>(null);
+    const [orderStatus, setOrderStatus] = useState<OrderStatus | null>(null);
     const [menuItems, setMenuItems] = useState<DrinkMenuItem[]>([]);
 
     useEffect(() => {
@@ -32,26 +33,39 @@ const CustomerInterface: React.FC = () => {
 
     useEffect(() => {
         if (orderPlaced && currentOrder) {
-            const interval = setInterval(async () => {
-                try {
-                    const orders = await getPendingOrders();
-                    setPendingOrders(orders);
-
-                    // Find position of current order
-                    const position = orders.findIndex(o => o.id === currentOrder.id);
-                    if (position !== -1) {
-                        setQueuePosition(position + 1);
-                    } else {
-                        // Order might be completed or in progress
-                        // We strictly don't unset orderPlaced here to keep the success screen visible
-                        // until user places new order, but we could update status text.
+            let interval: ReturnType<typeof setInterval> | undefined;
+
+            // Live updates are pushed by the server; poll the position endpoint only if the stream is unavailable
+            const pollPosition = () => {
+                interval = setInterval(async () => {
+                    try {
+                        const position = await getQueuePosition(currentOrder.id);
+                        setOrderStatus(position.status);
+                        setQueuePosition(position.position);
+                        setWaitMinutes(position.estimatedWaitMinutes);
+                    } catch (error: any) {
+                        if (error.response?.status === 404) {
+                            // No longer queued - completed or cancelled
+                            clearInterval(interval);
+                            setQueuePosition(0);
+                            setWaitMinutes(0);
+                        } else {
+                            console.error('Error fetching queue position:', error);
+                        }
                     }
-                } catch (error) {
-                    console.error('Error fetching queue:', error);
-                }
-            }, 3000); // Update every 3 seconds
+                }, 3000); // Update every 3 seconds
+            };
+
+            const stopWatching = watchOrder(currentOrder.id, (update) => {
+                setOrderStatus(update.status);
+                setQueuePosition(update.position);
+                setWaitMinutes(update.estimatedWaitMinutes);
+            }, pollPosition);
 
-            return () => clearInterval(interval);
+            return () => {
+                stopWatching();
+                clearInterval(interval);
+            };
         }
     }, [orderPlaced, currentOrder]);
 
@@ -87,6 +101,8 @@ const CustomerInterface: React.FC = () => {
             setCurrentOrder(order);
             setOrderPlaced(true);
             setQueuePosition(0); // Will be updated by effect
+            setWaitMinutes(null);
+            setOrderStatus(order.status);
 
             // alert(`Order placed successfully!\nOrder Number: ${order.orderNumber}`); // Removed alert for smoother UI flow
         } catch (error: any) {
@@ -98,6 +114,9 @@ const CustomerInterface: React.FC = () => {
                 message += error.response.data.errors
                     .map((e: any) => `${e.field}: ${e.defaultMessage}`)
                     .join('\n');
+            } else if (error.response?.data?.reason) {
+                // Admission control refusal (rate limit, quoted wait or full queue)
+                message += error.response.data.reason;
             } else if (error.message) {
                 message += error.message;
             }
@@ -118,16 +137,16 @@ const CustomerInterface: React.FC = () => {
         setCustomization('');
         setIsEmergency(false);
         setQueuePosition(0);
+        setWaitMinutes(null);
+        setOrderStatus(null);
     };
 
     const getEstimatedWaitTime = () => {
         if (!currentOrder) return 0;
 
-        // If we have queue position, try to estimate
-        if (queuePosition > 0) {
-            // Simple estimation: 3 mins per order ahead + current order prep time
-            const ordersAhead = Math.max(0, queuePosition - 1);
-            return (ordersAhead * 3) + currentOrder.estimatedPrepTime;
+        // Server-side ETA: backlog and prep minutes ahead spread over the active baristas
+        if (waitMinutes !== null) {
+            return waitMinutes;
         }
 
         return currentOrder.currentWaitMinutes || currentOrder.estimatedPrepTime;
@@ -176,7 +195,7 @@ const CustomerInterface: React.FC = () => {
                                 <div className="flex justify-between">
                                     <span className="opacity-90">Status:</span>
                                     <span className="font-semibold uppercase">
-                                        {currentOrder.status.replace('_', ' ')}
+                                        {(orderStatus ?? currentOrder.status).replace('_', ' ')}
                                     </span>
                                 </div>
                             </div>
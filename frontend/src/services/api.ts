@@ -1,7 +1,7 @@
 // services/api.ts - API service layer for backend communication
 
 import axios from 'axios';
-import { Order, Barista, OrderRequest, DrinkMenuItem, QueueStats } from '../types';
+import { Order, Barista, OrderRequest, DrinkMenuItem, QueueStats, QueuePosition, OrderStatusUpdate } from '../types';
 
 const API_BASE_URL = process.env.REACT_APP_API_URL;
 
@@ -56,6 +56,41 @@ export const getOrderById = async (orderId: number): Promise<Order> => {
     return response.data;
 };
 
+/**
+ * Get live queue position and estimated ready time for an order
+ */
+export const getQueuePosition = async (orderId: number): Promise<QueuePosition> => {
+    const response = await api.get(`/orders/${orderId}/position`);
+    return response.data;
+};
+
+/**
+ * Subscribe to live status, position and ETA updates for an order (Server-Sent Events).
+ * The stream closes itself once the order is completed or cancelled; call the
+ * returned function to stop listening earlier. onClosed runs if the server refuses
+ * or drops the stream for good (the browser retries transient disconnects itself).
+ */
+export const watchOrder = (
+    orderId: number,
+    onUpdate: (update: OrderStatusUpdate) => void,
+    onClosed?: () => void
+): (() => void) => {
+    const source = new EventSource(`${API_BASE_URL}/orders/${orderId}/events`);
+    source.addEventListener('status', (event) => {
+        const update = JSON.parse((event as MessageEvent).data) as OrderStatusUpdate;
+        onUpdate(update);
+        if (update.status === 'COMPLETED' || update.status === 'CANCELLED') {
+            source.close();
+        }
+    });
+    source.onerror = () => {
+        if (source.readyState === EventSource.CLOSED) {
+            onClosed?.();
+        }
+    };
+    return () => source.close();
+};
+
 /**
  * Create a new order
  */
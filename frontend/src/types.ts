@@ -11,6 +11,7 @@ export interface Order {
     priorityScore: number;
     currentWaitMinutes: number;
     estimatedPrepTime: number;
+    batchId?: string;
     emergencyFlag: boolean;
     baristaName?: string;
     baristaId?: number;
@@ -27,6 +28,7 @@ export interface Barista {
     currentWorkload: number;
     totalOrdersServed: number;
     averagePrepTime?: number;
+    workSlots?: number;
 }
 
 export type BaristaStatus = 'AVAILABLE' | 'BUSY' | 'OFFLINE';
@@ -48,4 +50,27 @@ export interface DrinkMenuItem {
 }
 
 emergencyOrders: number;
-}
\ No newline at end of file
+}
+
+export interface QueuePosition {
+    orderId: number;
+    orderNumber: string;
+    status: OrderStatus;
+    position: number;
+    ordersAhead: number;
+    prepMinutesAhead: number;
+    activeBaristas: number;
+    estimatedWaitMinutes: number;
+    estimatedReadyTime: string;
+}
+
+// One Server-Sent Event from GET /api/orders/{id}/events (OrderWatchService.OrderStatusUpdate)
+export interface OrderStatusUpdate {
+    orderId: number;
+    orderNumber: string;
+    status: OrderStatus;
+    position: number;
+    ordersAhead: number;
+    estimatedWaitMinutes: number;
+    estimatedReadyTime: string;
+}